@@ -0,0 +1,29 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import com.ThimoteoConsultorias.Consulthi.service.AdherenceService;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recalcula, na inicialização, os contadores de aderência das instâncias ativas,
+ * para que o roster não dependa da primeira execução do job noturno.
+ */
+@Component
+@Order(4)
+public class AdherenceBackfill implements CommandLineRunner
+{
+    private final AdherenceService adherenceService;
+
+    public AdherenceBackfill(AdherenceService adherenceService)
+    {
+        this.adherenceService = adherenceService;
+    }
+
+    @Override
+    public void run(String... args)
+    {
+        adherenceService.recomputeCounters();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Agenda ações (ex.: invalidação de caches) para depois do commit da transação corrente.
+ * Sem transação ativa, a ação é executada imediatamente.
+ */
+@Component
+public class AfterCommitExecutor
+{
+    public void execute(Runnable action)
+    {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+        {
+            @Override
+            public void afterCommit()
+            {
+                action.run();
+            }
+        });
+    }
+}
@@ -11,6 +11,7 @@ import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.Exercise;
 import com.ThimoteoConsultorias.Consulthi.model.User;
 import com.ThimoteoConsultorias.Consulthi.repository.ExerciseRepository;
+import com.ThimoteoConsultorias.Consulthi.service.ExerciseCatalog;
 import com.ThimoteoConsultorias.Consulthi.service.UserService;
 
 import org.springframework.boot.CommandLineRunner;
@@ -27,15 +28,18 @@ import java.util.stream.Collectors;
 public class DataInitializer implements CommandLineRunner
 {
     private final ExerciseRepository exerciseRepository;
+    private final ExerciseCatalog exerciseCatalog;
     private final UserService userService;
 
     public DataInitializer
     (
         UserService userService,
-        ExerciseRepository exerciseRepository
+        ExerciseRepository exerciseRepository,
+        ExerciseCatalog exerciseCatalog
     )
     {
         this.exerciseRepository = exerciseRepository;
+        this.exerciseCatalog = exerciseCatalog;
         this.userService = userService;
     }
 
@@ -104,7 +108,10 @@ public class DataInitializer implements CommandLineRunner
                 .collect(Collectors.toList());
 
         if (!newExercisesToSave.isEmpty())
+        {
             exerciseRepository.saveAll(newExercisesToSave);
+            exerciseCatalog.invalidate();
+        }
     }
 
     private void createAdministrators()
@@ -0,0 +1,31 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import com.ThimoteoConsultorias.Consulthi.service.InactiveStudentService;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preenche, na inicialização, a última atividade de treino dos alunos a partir do histórico existente.
+ */
+@Component
+@Order(5)
+public class LastTrainingBackfill implements CommandLineRunner
+{
+    private final InactiveStudentService inactiveStudentService;
+
+    public LastTrainingBackfill(InactiveStudentService inactiveStudentService)
+    {
+        this.inactiveStudentService = inactiveStudentService;
+    }
+
+    @Override
+    public void run(String... args)
+    {
+        int students = inactiveStudentService.backfillLastTrainingAt();
+
+        if (students > 0)
+            System.out.println("--- Última atividade de treino preenchida para " + students + " alunos ---");
+    }
+}
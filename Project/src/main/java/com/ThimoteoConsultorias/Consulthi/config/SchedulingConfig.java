@@ -0,0 +1,13 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita os métodos @Scheduled (regras diárias do SchedulerService e job de aderência).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig
+{
+}
@@ -58,7 +58,7 @@ public class SecurityConfig
             )
             .httpBasic(Customizer.withDefaults())
             .csrf(csrf -> csrf
-                .ignoringRequestMatchers("/administrator/api/**") 
+                .ignoringRequestMatchers("/administrator/api/**", "/student/api/**") 
             )
             .logout(logout -> logout
                 .logoutUrl("/logout")
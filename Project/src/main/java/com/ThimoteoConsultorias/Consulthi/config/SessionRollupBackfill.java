@@ -0,0 +1,32 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import com.ThimoteoConsultorias.Consulthi.service.RoutineInstanceService;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preenche, na inicialização, os rollups de sessões a partir do histórico existente.
+ * Roda depois da migração de templates de treino, que pode esvaziar a tabela.
+ */
+@Component
+@Order(2)
+public class SessionRollupBackfill implements CommandLineRunner
+{
+    private final RoutineInstanceService routineInstanceService;
+
+    public SessionRollupBackfill(RoutineInstanceService routineInstanceService)
+    {
+        this.routineInstanceService = routineInstanceService;
+    }
+
+    @Override
+    public void run(String... args)
+    {
+        int rows = routineInstanceService.backfillSessionRollups();
+
+        if (rows > 0)
+            System.out.println("--- Rollups de sessões: " + rows + " linhas geradas a partir do histórico ---");
+    }
+}
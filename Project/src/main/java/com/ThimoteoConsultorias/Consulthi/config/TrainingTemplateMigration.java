@@ -0,0 +1,31 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import com.ThimoteoConsultorias.Consulthi.service.TrainingService;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converte, na inicialização, treinos por rotina em templates compartilhados (ver TrainingService).
+ */
+@Component
+@Order(1)
+public class TrainingTemplateMigration implements CommandLineRunner
+{
+    private final TrainingService trainingService;
+
+    public TrainingTemplateMigration(TrainingService trainingService)
+    {
+        this.trainingService = trainingService;
+    }
+
+    @Override
+    public void run(String... args)
+    {
+        int removed = trainingService.migrateToSharedTemplates();
+
+        if (removed > 0)
+            System.out.println("--- Templates de treino: " + removed + " cópias duplicadas removidas ---");
+    }
+}
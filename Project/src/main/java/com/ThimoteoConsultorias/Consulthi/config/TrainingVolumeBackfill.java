@@ -0,0 +1,32 @@
+package com.ThimoteoConsultorias.Consulthi.config;
+
+import com.ThimoteoConsultorias.Consulthi.service.TrainingVolumeService;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gera, na inicialização, os buckets semanais de volume de treino a partir do histórico existente,
+ * quando a tabela ainda está vazia. Roda depois da migração de templates de treino.
+ */
+@Component
+@Order(3)
+public class TrainingVolumeBackfill implements CommandLineRunner
+{
+    private final TrainingVolumeService trainingVolumeService;
+
+    public TrainingVolumeBackfill(TrainingVolumeService trainingVolumeService)
+    {
+        this.trainingVolumeService = trainingVolumeService;
+    }
+
+    @Override
+    public void run(String... args)
+    {
+        int buckets = trainingVolumeService.backfillIfEmpty();
+
+        if (buckets > 0)
+            System.out.println("--- Volume semanal de treino: " + buckets + " buckets gerados a partir do histórico ---");
+    }
+}
@@ -1,5 +1,6 @@
 package com.ThimoteoConsultorias.Consulthi.controller;
 
+import com.ThimoteoConsultorias.Consulthi.dto.CacheStatsDTO;
 import com.ThimoteoConsultorias.Consulthi.service.AdministratorService;
 import com.ThimoteoConsultorias.Consulthi.model.User;
 
@@ -101,6 +102,26 @@ public class AdministratorController
         return administratorService.getPendingProfessionalRegistrations();
     }
     
+    /**
+     * Endpoint REST com as métricas (hits, misses, evictions) dos caches em memória.
+     */
+    @GetMapping("/api/cache-stats")
+    @ResponseBody
+    public List<CacheStatsDTO> getCacheStatsApi()
+    {
+        return administratorService.getCacheStats();
+    }
+    
+    /**
+     * Endpoint REST que reconstrói o volume semanal de treino a partir do histórico; retorna o número de buckets.
+     */
+    @PostMapping("/api/training-volume/rebuild")
+    @ResponseBody
+    public int rebuildTrainingVolumeApi()
+    {
+        return administratorService.rebuildTrainingVolume();
+    }
+    
     /**
      * Endpoint REST para aprovar um registro de Profissional (RF01 - Usado pelo Desktop Admin).
      * O cliente desktop usará este endpoint.
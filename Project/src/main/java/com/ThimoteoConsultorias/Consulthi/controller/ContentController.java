@@ -1,16 +1,21 @@
 package com.ThimoteoConsultorias.Consulthi.controller;
 
 import com.ThimoteoConsultorias.Consulthi.dto.ContentDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentSearchHitDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineAssignmentResultDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.*;
 import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.Content;
 import com.ThimoteoConsultorias.Consulthi.model.Professional;
+import com.ThimoteoConsultorias.Consulthi.model.Routine;
 import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
 import com.ThimoteoConsultorias.Consulthi.service.ContentService;
 import com.ThimoteoConsultorias.Consulthi.service.ProfessionalService;
+import com.ThimoteoConsultorias.Consulthi.service.RoutineInstanceService;
 import com.ThimoteoConsultorias.Consulthi.service.StudentProfessionalLinkService;
 import com.ThimoteoConsultorias.Consulthi.service.TrainingService;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -18,6 +23,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
@@ -40,6 +47,7 @@ public class ContentController
     private final ProfessionalService professionalService;
     private final StudentProfessionalLinkService linkService;
     private final TrainingService trainingService;
+    private final RoutineInstanceService routineInstanceService;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
@@ -48,12 +56,14 @@ public class ContentController
         ContentService contentService, 
         ProfessionalService professionalService,
         StudentProfessionalLinkService linkService,
-        TrainingService trainingService)
+        TrainingService trainingService,
+        RoutineInstanceService routineInstanceService)
     {
         this.contentService = contentService;
         this.professionalService = professionalService;
         this.linkService = linkService;
         this.trainingService = trainingService;
+        this.routineInstanceService = routineInstanceService;
     }
 
     // -----------------------------------------------------------------------
@@ -61,18 +71,68 @@ public class ContentController
     // -----------------------------------------------------------------------
 
     /**
-     * Exibe a lista de conteúdos criados pelo profissional.
+     * Exibe a primeira página da lista de conteúdos criados pelo profissional,
+     * com filtro opcional por tipo e prefixo do nome.
      */
     @GetMapping
-    public String listContent(@AuthenticationPrincipal(expression = "id") Long currentUserId, Model model) 
+    public String listContent
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @RequestParam(required = false) ContentType type,
+        @RequestParam(required = false) String q,
+        Model model
+    )
     {
-        Professional creator = professionalService.getProfessionalById(currentUserId);
-        List<Content> contents = contentService.listAllContentByCreator(creator, ContentType.ALL);
-        model.addAttribute("contents", contents);
+        model.addAttribute("page", contentService.listContentPageByCreator(currentUserId, type, q, null, null, ContentService.DEFAULT_PAGE_SIZE));
+        model.addAttribute("selectedType", type);
+        model.addAttribute("query", q);
+        model.addAttribute("filterTypes", ContentType.values());
+
+        try
+        {
+            Professional professional = professionalService.getProfessionalById(currentUserId);
+            model.addAttribute("activeStudents", linkService.getLinksByProfessionalAndStatusIn(professional, EnumSet.of(LinkStatus.ACCEPTED)));
+        }
+        catch (Exception e)
+        {
+            model.addAttribute("activeStudents", List.of());
+        }
 
         return "professional/content/list";
     }
 
+    /**
+     * Endpoint HTMX: retorna as linhas da página seguinte ("Carregar mais") ou da
+     * primeira página após mudança de filtro.
+     */
+    @GetMapping("/page")
+    public String listContentPage
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @RequestParam(required = false) ContentType type,
+        @RequestParam(required = false) String q,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+        @RequestParam(required = false) Long cursorId,
+        Model model
+    )
+    {
+        model.addAttribute("page", contentService.listContentPageByCreator(currentUserId, type, q, cursorDate, cursorId, ContentService.DEFAULT_PAGE_SIZE));
+        model.addAttribute("selectedType", type);
+        model.addAttribute("query", q);
+
+        return "professional/content/list :: contentRows";
+    }
+
+    /**
+     * Endpoint REST de busca textual (nome, descrição, refeições e blocos de texto) nos conteúdos do profissional.
+     */
+    @GetMapping("/api/search")
+    @ResponseBody
+    public List<ContentSearchHitDTO> searchContentApi(@AuthenticationPrincipal(expression = "id") Long currentUserId, @RequestParam String q)
+    {
+        return contentService.searchContentForProfessional(currentUserId, q);
+    }
+
     /**
      * Exibe o formulário de criação de conteúdo.
      */
@@ -127,18 +187,19 @@ public class ContentController
     {
         try 
         {
-            Content content = contentService.getContentById(contentId);
-            
-            if (!contentService.isUserAuthorizedToView(content, currentUserId)) 
-            {
-                model.addAttribute("error", "Acesso negado. Este conteúdo não foi compartilhado com você.");
-                return "error/accessDenied";
-            }
+            Content content = contentService.getAuthorizedContent(contentId, currentUserId);
 
             model.addAttribute("content", content);
             
             if (content.getCreator().getUser().getId().equals(currentUserId)) 
+            {
+                // Alunos disponíveis para a atribuição em lote da rotina
+                if (content instanceof Routine)
+                    model.addAttribute("activeStudents", linkService.getLinksByProfessionalAndStatusIn(
+                        professionalService.getProfessionalById(currentUserId), EnumSet.of(LinkStatus.ACCEPTED)));
+
                 return "professional/content/view"; 
+            }
             else 
                 return "student/content/consume"; 
         } 
@@ -147,6 +208,11 @@ public class ContentController
             model.addAttribute("error", "Conteúdo não encontrado.");
             return "error/404";
         }
+        catch (SecurityException e)
+        {
+            model.addAttribute("error", "Acesso negado. Este conteúdo não foi compartilhado com você.");
+            return "error/accessDenied";
+        }
     }
     
     /**
@@ -269,6 +335,87 @@ public class ContentController
         }
     }
 
+    /**
+     * Libera em lote os conteúdos selecionados na listagem para os alunos selecionados.
+     */
+    @PostMapping("/access/grant")
+    public String grantAccess
+    (
+        @RequestParam(required = false) List<Long> contentIds,
+        @RequestParam(required = false) List<Long> studentIds,
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        RedirectAttributes redirectAttributes
+    )
+    {
+        try
+        {
+            int granted = contentService.grantAccess(currentUserId, contentIds, studentIds);
+            redirectAttributes.addFlashAttribute("message", granted + " liberação(ões) de acesso concedida(s). Conteúdos abertos a todos não foram alterados.");
+        }
+        catch (IllegalArgumentException | SecurityException e)
+        {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/professional/content";
+    }
+
+    /**
+     * Revoga em lote o acesso dos alunos selecionados aos conteúdos selecionados.
+     */
+    @PostMapping("/access/revoke")
+    public String revokeAccess
+    (
+        @RequestParam(required = false) List<Long> contentIds,
+        @RequestParam(required = false) List<Long> studentIds,
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        RedirectAttributes redirectAttributes
+    )
+    {
+        try
+        {
+            int removed = contentService.revokeAccess(currentUserId, contentIds, studentIds);
+            redirectAttributes.addFlashAttribute("message", removed + " liberação(ões) de acesso revogada(s).");
+        }
+        catch (IllegalArgumentException | SecurityException e)
+        {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/professional/content";
+    }
+
+    /**
+     * Atribui a rotina aos alunos selecionados, de uma só vez.
+     */
+    @PostMapping("/assign/{contentId}")
+    public String assignRoutine
+    (
+        @PathVariable Long contentId,
+        @RequestParam(required = false) List<Long> studentIds,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        RedirectAttributes redirectAttributes
+    )
+    {
+        try
+        {
+            RoutineAssignmentResultDTO result = routineInstanceService.assignRoutineToStudents(
+                currentUserId, contentId, studentIds, startDate == null ? LocalDate.now() : startDate, endDate);
+
+            redirectAttributes.addFlashAttribute("message", "Rotina atribuída a " + result.getAssignedStudentIds().size() + " aluno(s). "
+                + result.getAlreadyAssignedStudentIds().size() + " já a possuíam e "
+                + result.getNotLinkedStudentIds().size() + " não têm vínculo ativo.");
+        }
+        catch (ResourceNotFoundException | IllegalArgumentException | SecurityException e)
+        {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/professional/content/view/" + contentId;
+    }
+
     /**
      * Remove o conteúdo (RF07).
      */
@@ -1,10 +1,13 @@
 package com.ThimoteoConsultorias.Consulthi.controller;
 
+import com.ThimoteoConsultorias.Consulthi.dto.WeeklyVolumeChartDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.model.Professional;
 import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
+import com.ThimoteoConsultorias.Consulthi.service.AdherenceService;
 import com.ThimoteoConsultorias.Consulthi.service.ProfessionalService;
 import com.ThimoteoConsultorias.Consulthi.service.StudentProfessionalLinkService;
+import com.ThimoteoConsultorias.Consulthi.service.TrainingVolumeService;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -26,15 +31,21 @@ public class ProfessionalController
 {
     private final ProfessionalService professionalService;
     private final StudentProfessionalLinkService linkService;
+    private final TrainingVolumeService trainingVolumeService;
+    private final AdherenceService adherenceService;
 
     public ProfessionalController
     (
         ProfessionalService professionalService,
-        StudentProfessionalLinkService linkService
+        StudentProfessionalLinkService linkService,
+        TrainingVolumeService trainingVolumeService,
+        AdherenceService adherenceService
     )
     {
         this.professionalService = professionalService;
         this.linkService = linkService;
+        this.trainingVolumeService = trainingVolumeService;
+        this.adherenceService = adherenceService;
     }
 
     /**
@@ -54,6 +65,7 @@ public class ProfessionalController
         model.addAttribute("professional", professional);
         model.addAttribute("pendingRequests", pendingRequests);
         model.addAttribute("activeStudents", activeStudents);
+        model.addAttribute("adherenceRoster", adherenceService.getRosterByProfessional(currentUserId));
         
         return "professional/dashboard";
     }
@@ -69,6 +81,72 @@ public class ProfessionalController
         return "redirect:/professional/dashboard";
     }
 
+    /**
+     * Aceita em lote as solicitações selecionadas no painel (RF01).
+     */
+    @PostMapping("/links/bulk/accept")
+    public String acceptStudentLinks(@RequestParam(required = false) List<Long> linkIds, @AuthenticationPrincipal(expression = "id") Long currentUserId, RedirectAttributes redirectAttributes)
+    {
+        if (linkIds == null || linkIds.isEmpty())
+            return noLinksSelected(redirectAttributes);
+
+        try
+        {
+            int accepted = linkService.acceptLinks(linkIds, currentUserId);
+            redirectAttributes.addFlashAttribute("message", accepted + " solicitação(ões) de aluno aceita(s) com sucesso!");
+        }
+        catch (IllegalArgumentException | SecurityException e)
+        {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/professional/dashboard";
+    }
+
+    /**
+     * Recusa em lote as solicitações selecionadas no painel.
+     */
+    @PostMapping("/links/bulk/reject")
+    public String rejectStudentLinks(@RequestParam(required = false) List<Long> linkIds, @AuthenticationPrincipal(expression = "id") Long currentUserId, RedirectAttributes redirectAttributes)
+    {
+        if (linkIds == null || linkIds.isEmpty())
+            return noLinksSelected(redirectAttributes);
+
+        try
+        {
+            int rejected = linkService.rejectLinks(linkIds, currentUserId);
+            redirectAttributes.addFlashAttribute("message", rejected + " solicitação(ões) de aluno recusada(s).");
+        }
+        catch (IllegalArgumentException | SecurityException e)
+        {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/professional/dashboard";
+    }
+
+    /**
+     * Remove em lote o acesso dos alunos selecionados (RF05).
+     */
+    @PostMapping("/links/bulk/remove")
+    public String removeStudentLinks(@RequestParam(required = false) List<Long> linkIds, @AuthenticationPrincipal(expression = "id") Long currentUserId, RedirectAttributes redirectAttributes)
+    {
+        if (linkIds == null || linkIds.isEmpty())
+            return noLinksSelected(redirectAttributes);
+
+        try
+        {
+            int removed = linkService.removeLinks(linkIds, currentUserId);
+            redirectAttributes.addFlashAttribute("message", "Acesso de " + removed + " aluno(s) removido com sucesso (RF05).");
+        }
+        catch (IllegalArgumentException | SecurityException e)
+        {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+
+        return "redirect:/professional/dashboard";
+    }
+
     /**
      * Processa a remoção de um vínculo de aluno (RF05).
      */
@@ -79,4 +157,41 @@ public class ProfessionalController
         redirectAttributes.addFlashAttribute("message", "Acesso do aluno removido com sucesso (RF05).");
         return "redirect:/professional/dashboard";
     }
-}
\ No newline at end of file
+
+    /**
+     * Fragmento HTMX com a tonelagem semanal por grupo muscular de um aluno vinculado.
+     */
+    @GetMapping("/students/{studentId}/training-volume")
+    public String studentTrainingVolume
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @PathVariable Long studentId,
+        @RequestParam(defaultValue = "" + TrainingVolumeService.DEFAULT_CHART_WEEKS) int weeks,
+        Model model
+    )
+    {
+        model.addAttribute("volumeChart", trainingVolumeService.getWeeklyVolumeChart(currentUserId, studentId, weeks));
+        return "professional/dashboard :: trainingVolume";
+    }
+
+    /**
+     * Endpoint REST com o volume semanal (séries, repetições e tonelagem) por grupo muscular, para gráficos.
+     */
+    @GetMapping("/api/students/{studentId}/training-volume")
+    @ResponseBody
+    public WeeklyVolumeChartDTO studentTrainingVolumeApi
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @PathVariable Long studentId,
+        @RequestParam(defaultValue = "" + TrainingVolumeService.DEFAULT_CHART_WEEKS) int weeks
+    )
+    {
+        return trainingVolumeService.getWeeklyVolumeChart(currentUserId, studentId, weeks);
+    }
+
+    private static String noLinksSelected(RedirectAttributes redirectAttributes)
+    {
+        redirectAttributes.addFlashAttribute("error", "Selecione ao menos um aluno.");
+        return "redirect:/professional/dashboard";
+    }
+}
@@ -1,22 +1,26 @@
 package com.ThimoteoConsultorias.Consulthi.controller;
 
+import com.ThimoteoConsultorias.Consulthi.dto.ContentFeedItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentSearchHitDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineInstanceSummaryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogAggregateDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingLogDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSyncItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSyncResultDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
-import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.Content;
-import com.ThimoteoConsultorias.Consulthi.model.Diet;
-import com.ThimoteoConsultorias.Consulthi.model.Material;
-import com.ThimoteoConsultorias.Consulthi.model.Professional;
 import com.ThimoteoConsultorias.Consulthi.model.Routine;
 import com.ThimoteoConsultorias.Consulthi.model.RoutineInstance;
 import com.ThimoteoConsultorias.Consulthi.model.Student;
-import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
-import com.ThimoteoConsultorias.Consulthi.model.TrainingHistory;
 import com.ThimoteoConsultorias.Consulthi.service.ContentService;
 import com.ThimoteoConsultorias.Consulthi.service.RoutineInstanceService;
 import com.ThimoteoConsultorias.Consulthi.service.StudentService;
 import com.ThimoteoConsultorias.Consulthi.service.StudentProfessionalLinkService;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -24,10 +28,9 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.ArrayList;
-import java.util.EnumSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Controller
@@ -61,35 +64,17 @@ public class StudentController
     @GetMapping("/dashboard")
     public String studentHome(@AuthenticationPrincipal(expression = "id") Long currentUserId, Model model)
     {
-        List<RoutineInstance> activeRoutines = routineInstanceService.getActiveRoutinesByStudent(currentUserId);
+        List<RoutineInstanceSummaryDTO> activeRoutines = routineInstanceService.getActiveRoutinesByStudent(currentUserId);
         model.addAttribute("activeRoutines", activeRoutines);
         
-        Student student = studentService.getStudentById(currentUserId);
-        List<StudentProfessionalLink> activeLinks = linkService.getLinksByStudentAndStatusIn(student, EnumSet.of(LinkStatus.ACCEPTED));
-        List<Content> allAccessibleContent = new ArrayList<>();
+        List<ContentFeedItemDTO> contentFeed = contentService.listContentFeedForStudent(currentUserId);
         
-        for (StudentProfessionalLink link : activeLinks) 
-        {
-            Professional professional = link.getProfessional();
-            List<Content> contentFromProf = contentService.listAllContentByCreator(professional, ContentType.ALL);
-            
-            for (Content content : contentFromProf) 
-            {
-                Set<Long> accessList = content.getAccessStudentIds();
-                
-                if (accessList == null || accessList.isEmpty() || accessList.contains(currentUserId))
-                    allAccessibleContent.add(content);
-            }
-        }
-        
-        List<Diet> activeDiets = allAccessibleContent.stream()
-            .filter(content -> content instanceof Diet)
-            .map(content -> (Diet) content)
+        List<ContentFeedItemDTO> activeDiets = contentFeed.stream()
+            .filter(item -> item.getContentType() == ContentType.DIET)
             .collect(Collectors.toList());
             
-        List<Material> educationalMaterials = allAccessibleContent.stream()
-            .filter(content -> content instanceof Material)
-            .map(content -> (Material) content)
+        List<ContentFeedItemDTO> educationalMaterials = contentFeed.stream()
+            .filter(item -> item.getContentType() == ContentType.MATERIAL)
             .collect(Collectors.toList());
 
         model.addAttribute("activeDiets", activeDiets);
@@ -98,10 +83,60 @@ public class StudentController
         return "student/dashboard";
     }
 
+    /**
+     * Arquivo de rotinas encerradas do Aluno, paginado por chave em (endDate, id).
+     */
+    @GetMapping("/routines/archive")
+    public String routineArchive
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate cursorDate,
+        @RequestParam(required = false) Long cursorId,
+        Model model
+    )
+    {
+        model.addAttribute("page", routineInstanceService.listArchivedRoutinesByStudent(
+            currentUserId, cursorDate, cursorId, RoutineInstanceService.DEFAULT_ARCHIVE_PAGE_SIZE));
+
+        return "student/routines/archive";
+    }
+
+    /**
+     * Endpoint HTMX: próxima página do histórico de uma instância de rotina do aluno.
+     */
+    @GetMapping("/routine/{instanceId}/history")
+    public String routineHistoryPage
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @PathVariable Long instanceId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorDate,
+        @RequestParam(required = false) Long cursorId,
+        Model model
+    )
+    {
+        routineInstanceService.requireInstanceOfStudent(instanceId, currentUserId);
+
+        model.addAttribute("instanceId", instanceId);
+        model.addAttribute("historyPage", routineInstanceService.getHistoryPageByRoutineInstance(
+            instanceId, cursorDate, cursorId, RoutineInstanceService.DEFAULT_HISTORY_PAGE_SIZE));
+
+        return "student/content/view :: historyRows";
+    }
+
     /*
      * CONTEÚDO
      */
     
+    /**
+     * Endpoint REST de busca textual nos conteúdos liberados para o aluno (RF06).
+     */
+    @GetMapping("/api/search")
+    @ResponseBody
+    public List<ContentSearchHitDTO> searchContentApi(@AuthenticationPrincipal(expression = "id") Long currentUserId, @RequestParam String q)
+    {
+        return contentService.searchContentForStudent(currentUserId, q);
+    }
+
     /**
      * Visualiza os detalhes de um conteúdo específico (RF06).
      * Garante que o aluno TEM ACESSO e carrega o histórico se for Rotina.
@@ -116,7 +151,7 @@ public class StudentController
     { 
         try
         {
-            Content content = contentService.getContentForStudent(contentId, currentUserId);
+            Content content = contentService.getAuthorizedContent(contentId, currentUserId);
             model.addAttribute("content", content);
             
             if (content instanceof Routine routine) 
@@ -128,9 +163,10 @@ public class StudentController
                     RoutineInstance instance = routineInstanceService.getActiveRoutineInstance(student, routine);
                     
                     model.addAttribute("currentInstance", instance);
-                    
-                    List<TrainingHistory> history = routineInstanceService.getHistoryByRoutineInstance(instance.getId());
-                    model.addAttribute("history", history);
+                    model.addAttribute("instanceId", instance.getId());
+                    model.addAttribute("rollup", routineInstanceService.getRollupByRoutineInstance(instance.getId()));
+                    model.addAttribute("historyPage", routineInstanceService.getHistoryPageByRoutineInstance(
+                        instance.getId(), null, null, RoutineInstanceService.DEFAULT_HISTORY_PAGE_SIZE));
                 }
                 catch(ResourceNotFoundException e)
                 {
@@ -165,13 +201,15 @@ public class StudentController
             @AuthenticationPrincipal(expression = "id") Long currentUserId,
             @PathVariable Long instanceId,
             @PathVariable Long trainingId,
-            @RequestParam(required = false) String notes,
+            @ModelAttribute TrainingLogDTO trainingLog,
             RedirectAttributes redirectAttributes
     )
     {
+        routineInstanceService.requireInstanceOfStudent(instanceId, currentUserId);
+
         try 
         {
-            routineInstanceService.logTrainingExecution(instanceId, trainingId, notes);
+            routineInstanceService.logTrainingExecution(instanceId, trainingId, trainingLog.getNotes(), trainingLog.getPerformedSets());
             
             RoutineInstance instance = routineInstanceService.getRoutineInstanceById(instanceId);
             
@@ -179,13 +217,61 @@ public class StudentController
             
             return "redirect:/student/content/" + instance.getRoutine().getId();
         } 
-        catch (ResourceNotFoundException e) 
+        catch (ResourceNotFoundException | IllegalArgumentException e) 
         {
              redirectAttributes.addFlashAttribute("error", "Erro ao registrar treino: " + e.getMessage());
              return "redirect:/student/dashboard";
         }
     }
     
+    /**
+     * Endpoint REST de sincronização em lote das sessões registradas offline.
+     * Reenvios com a mesma chave de cliente não duplicam o histórico.
+     */
+    @PostMapping(value = "/api/training-logs/sync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public TrainingSyncResultDTO syncTrainingLogsApi
+    (
+            @AuthenticationPrincipal(expression = "id") Long currentUserId,
+            @RequestBody List<TrainingSyncItemDTO> sessions
+    )
+    {
+        return routineInstanceService.syncTrainingLogs(currentUserId, sessions);
+    }
+
+    /**
+     * Endpoint REST com as séries registradas em uma sessão do aluno, decodificadas do set_log.
+     */
+    @GetMapping("/api/training-logs/{historyId}/sets")
+    @ResponseBody
+    public List<SetLogEntryDTO> trainingLogSetsApi
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @PathVariable Long historyId
+    )
+    {
+        return routineInstanceService.getSetLog(historyId, currentUserId);
+    }
+
+    /**
+     * Endpoint REST com os totais de séries, repetições e volume por treino do aluno no período [from, to).
+     * Sem período informado, considera as últimas 4 semanas.
+     */
+    @GetMapping("/api/training-logs/summary")
+    @ResponseBody
+    public List<SetLogAggregateDTO> trainingLogSummaryApi
+    (
+        @AuthenticationPrincipal(expression = "id") Long currentUserId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    )
+    {
+        LocalDate end = to == null ? LocalDate.now().plusDays(1) : to;
+        LocalDate start = from == null ? end.minusWeeks(4) : from;
+
+        return routineInstanceService.aggregateSetLogsByStudent(currentUserId, start.atStartOfDay(), end.atStartOfDay());
+    }
+    
     /*
      * VÍNCULOS (REMOÇÃO PELO ALUNO - RF04)
      */
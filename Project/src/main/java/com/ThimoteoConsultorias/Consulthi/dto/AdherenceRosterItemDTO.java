@@ -0,0 +1,38 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Linha do roster de aderência: uma instância de rotina ativa de um aluno do profissional.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdherenceRosterItemDTO
+{
+    private Long instanceId;
+    private Long studentId;
+    private String studentName;
+    private String routineName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int completedSessions;
+    private int expectedSessions;
+
+    /**
+     * Percentual de sessões previstas até hoje que foram feitas (limitado a 100); nulo se nada era previsto ainda.
+     */
+    public Integer getAdherencePercent()
+    {
+        if (expectedSessions <= 0)
+            return null;
+
+        return Math.min(100, Math.round(100f * completedSessions / expectedSessions));
+    }
+}
@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de um cache em memória (exposto na API do Administrador).
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO
+{
+    private String name;
+    private long size;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+}
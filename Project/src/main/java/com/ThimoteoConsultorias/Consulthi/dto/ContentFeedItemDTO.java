@@ -0,0 +1,26 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção leve de um Conteúdo para o feed do Aluno (RF06).
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentFeedItemDTO
+{
+    private Long id;
+    private String name;
+    private ContentType contentType;
+    private String creatorName;
+    private LocalDateTime lastModificationDate;
+}
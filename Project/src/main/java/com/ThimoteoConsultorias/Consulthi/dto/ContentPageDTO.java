@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página da listagem de conteúdos, com o cursor (lastModificationDate, id) do último item
+ * para buscar a página seguinte.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentPageDTO
+{
+    private List<ContentSummaryDTO> items;
+    private boolean hasMore;
+    private LocalDateTime nextCursorDate;
+    private Long nextCursorId;
+}
@@ -0,0 +1,26 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado da busca textual de conteúdos, ordenado pelo score BM25.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentSearchHitDTO
+{
+    private Long id;
+    private String name;
+    private ContentType contentType;
+    private LocalDateTime lastModificationDate;
+    private double score;
+}
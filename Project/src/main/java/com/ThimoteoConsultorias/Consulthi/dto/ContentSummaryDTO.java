@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção leve de um Conteúdo para a listagem do Profissional (RF07).
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentSummaryDTO
+{
+    private Long id;
+    private String name;
+    private ContentType contentType;
+    private LocalDateTime lastModificationDate;
+}
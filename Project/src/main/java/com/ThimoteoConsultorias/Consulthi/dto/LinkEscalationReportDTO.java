@@ -0,0 +1,24 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Relatório de escalada (RF01): solicitações PENDING anteriores ao corte, calculado por agregação.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinkEscalationReportDTO
+{
+    private LocalDateTime cutoff;
+    private long pendingCount;
+    private LocalDateTime oldestRequest;
+    private List<ProfessionalBacklogDTO> topProfessionals;
+}
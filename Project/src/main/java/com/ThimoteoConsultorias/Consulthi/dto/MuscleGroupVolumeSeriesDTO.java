@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import com.ThimoteoConsultorias.Consulthi.enums.MuscleGroup;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Série do gráfico de um grupo muscular; cada lista tem uma posição por semana de WeeklyVolumeChartDTO.weeks.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MuscleGroupVolumeSeriesDTO
+{
+    private MuscleGroup muscleGroup;
+    private List<Long> sets;
+    private List<Long> repetitions;
+    private List<Double> tonnageKg;
+}
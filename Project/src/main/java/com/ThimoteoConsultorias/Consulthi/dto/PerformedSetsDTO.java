@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Linha do formulário de registro: as séries realizadas de uma TrainingSet, uma posição por série.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerformedSetsDTO
+{
+    private Integer trainingSetIndex;
+    private List<Integer> repetitions;
+    private List<Float> loadsInKg;
+    private List<Integer> durationsSeconds;
+}
@@ -0,0 +1,28 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Recorde pessoal batido em uma sessão: novos valores do exercício e quais métricas foram superadas.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonalRecordDTO
+{
+    private Long exerciseId;
+    private String exerciseName;
+
+    private float maxLoadKg;
+    private int repsAtMaxLoad;
+    private int maxRepetitions;
+    private float estimatedOneRepMaxKg;
+
+    private boolean newMaxLoad;
+    private boolean newMaxRepetitions;
+    private boolean newEstimatedOneRepMax;
+}
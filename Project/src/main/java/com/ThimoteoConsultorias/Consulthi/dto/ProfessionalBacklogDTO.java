@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Solicitações PENDING antigas acumuladas por um profissional (relatório de escalada).
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfessionalBacklogDTO
+{
+    private Long professionalId;
+    private String professionalName;
+    private Long pendingCount;
+    private LocalDateTime oldestRequest;
+}
@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado da atribuição de uma rotina a vários alunos: quem recebeu a rotina,
+ * quem já a tinha e quem foi ignorado por não ter vínculo ativo com o profissional.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineAssignmentResultDTO
+{
+    private List<Long> assignedStudentIds;
+    private List<Long> alreadyAssignedStudentIds;
+    private List<Long> notLinkedStudentIds;
+}
@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Página do arquivo de rotinas encerradas, com o cursor (endDate, instanceId) do último item
+ * para buscar a página seguinte.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineInstancePageDTO
+{
+    private List<RoutineInstanceSummaryDTO> items;
+    private boolean hasMore;
+    private LocalDate nextCursorDate;
+    private Long nextCursorId;
+}
@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resumo de uma instância de rotina: total de sessões, última sessão e sessões por treino.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineInstanceRollupDTO
+{
+    private long totalSessions;
+    private LocalDateTime lastSessionAt;
+    private List<TrainingSessionSummaryDTO> trainings;
+}
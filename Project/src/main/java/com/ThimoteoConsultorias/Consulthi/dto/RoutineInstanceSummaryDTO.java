@@ -0,0 +1,29 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import com.ThimoteoConsultorias.Consulthi.enums.RoutineLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção leve de uma Instância de Rotina, com nome e nível da rotina e o profissional autor,
+ * para o dashboard e o arquivo do Aluno.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutineInstanceSummaryDTO
+{
+    private Long instanceId;
+    private Long routineId;
+    private String routineName;
+    private RoutineLevel routineLevel;
+    private String professionalName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
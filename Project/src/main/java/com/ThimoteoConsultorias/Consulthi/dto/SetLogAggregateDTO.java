@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais das séries registradas por treino em um período (sessões, séries, repetições e volume em kg).
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SetLogAggregateDTO
+{
+    private Long trainingId;
+    private String trainingName;
+    private Long sessions;
+    private Long loggedSets;
+    private Long totalRepetitions;
+    private Double totalVolumeKg;
+}
@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Uma série efetivamente executada em uma sessão: a TrainingSet do template (pela posição)
+ * e os valores realizados. O exerciseId é resolvido pelo template na leitura.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SetLogEntryDTO
+{
+    private Integer trainingSetIndex;
+    private Long exerciseId;
+    private Integer repetitions;
+    private Float loadInKg;
+    private Integer durationSeconds;
+}
@@ -0,0 +1,26 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção leve de um registro de TrainingHistory, já com o nome do treino.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingHistoryItemDTO
+{
+    private Long id;
+    private Long trainingId;
+    private String trainingName;
+    private LocalDateTime executionDateTime;
+    private String studentNotes;
+    private Integer loggedSets;
+    private Double totalVolumeKg;
+}
@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Página do histórico de uma instância de rotina, com o cursor (executionDateTime, id)
+ * do último item para buscar a página seguinte.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingHistoryPageDTO
+{
+    private List<TrainingHistoryItemDTO> items;
+    private boolean hasMore;
+    private LocalDateTime nextCursorDate;
+    private Long nextCursorId;
+}
@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sessões realizadas de um treino em uma instância de rotina (a partir do rollup).
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingSessionSummaryDTO
+{
+    private Long trainingId;
+    private String trainingName;
+    private long sessions;
+    private LocalDateTime lastSessionAt;
+}
@@ -0,0 +1,29 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sessão de treino registrada offline pelo cliente e enviada na sincronização em lote.
+ * O clientKey é gerado pelo cliente (ex.: UUID) e torna o reenvio idempotente.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingSyncItemDTO
+{
+    private String clientKey;
+    private Long routineInstanceId;
+    private Long trainingId;
+    private LocalDateTime executedAt;
+    private String notes;
+    private List<PerformedSetsDTO> performedSets;
+}
@@ -0,0 +1,24 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado da sincronização, por clientKey: gravadas agora, já gravadas antes (reenvio)
+ * e rejeitadas com o motivo. O cliente pode descartar da fila as duas primeiras listas.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingSyncResultDTO
+{
+    private List<String> acceptedKeys;
+    private List<String> duplicateKeys;
+    private Map<String, String> rejected;
+}
@@ -0,0 +1,24 @@
+package com.ThimoteoConsultorias.Consulthi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Volume semanal de um aluno pronto para gráfico: eixo de semanas contínuo (segundas-feiras)
+ * e uma série por grupo muscular, com zeros nas semanas sem treino.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeeklyVolumeChartDTO
+{
+    private Long studentId;
+    private List<LocalDate> weeks;
+    private List<MuscleGroupVolumeSeriesDTO> series;
+}
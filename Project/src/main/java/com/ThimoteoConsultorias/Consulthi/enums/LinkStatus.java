@@ -1,9 +1,51 @@
 package com.ThimoteoConsultorias.Consulthi.enums;
 
+/**
+ * Ciclo de vida de um StudentProfessionalLink, como máquina de estados:
+ * PENDING pode ser aceito ou recusado; os demais estados só saem do sistema por remoção.
+ * Pendências expiradas são removidas (não passam a EXPIRED).
+ */
 public enum LinkStatus
 {
     ACCEPTED,
     EXPIRED,
     PENDING,
     REJECTED;
-}
\ No newline at end of file
+
+    /**
+     * Indica se a transição deste status para o informado é permitida.
+     */
+    public boolean canTransitionTo(LinkStatus target)
+    {
+        return switch (this)
+        {
+            case PENDING -> target == ACCEPTED || target == REJECTED;
+            case ACCEPTED, EXPIRED, REJECTED -> false;
+        };
+    }
+
+    /**
+     * Status de origem da transição para o informado. É a condição dos UPDATEs condicionais
+     * (o status atual do link é validado pelo próprio banco) e o fromStatus gravado no log.
+     * @throws IllegalStateException se o status não tiver exatamente uma origem permitida.
+     */
+    public static LinkStatus sourceOf(LinkStatus target)
+    {
+        LinkStatus source = null;
+
+        for (LinkStatus status : values())
+        {
+            if (!status.canTransitionTo(target))
+                continue;
+
+            if (source != null)
+                throw new IllegalStateException("Transição para " + target + " tem mais de uma origem.");
+            source = status;
+        }
+
+        if (source == null)
+            throw new IllegalStateException("Nenhum status pode transitar para " + target + ".");
+
+        return source;
+    }
+}
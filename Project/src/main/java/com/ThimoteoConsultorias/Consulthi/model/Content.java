@@ -1,5 +1,7 @@
 package com.ThimoteoConsultorias.Consulthi.model;
 
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,10 +14,13 @@ import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
@@ -31,7 +36,15 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "content")
+@Table(
+    name = "content",
+    indexes = {
+        // Listagem paginada do Profissional: seek em (last_modification_date, id) por criador
+        @Index(name = "idx_content_creator_modified", columnList = "professional_id, last_modification_date DESC, id DESC"),
+        // Mesma listagem com filtro de tipo
+        @Index(name = "idx_content_creator_type_modified", columnList = "professional_id, content_type, last_modification_date DESC, id DESC")
+    }
+)
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "content_type", discriminatorType = DiscriminatorType.STRING)
 public abstract class Content
@@ -40,6 +53,11 @@ public abstract class Content
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Leitura da coluna discriminadora, para filtros e projeções por tipo direto no banco
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", insertable = false, updatable = false)
+    private ContentType contentType;
+
     private String name;
     
     @Column(columnDefinition = "TEXT")
@@ -52,8 +70,13 @@ public abstract class Content
     @JoinColumn(name = "professional_id", nullable = false)
     private Professional creator;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "content_access_students", joinColumns = @JoinColumn(name = "content_id"))
+    // LAZY: as verificações de acesso usam o ContentAccessIndex; o índice em student_id atende o inverso (aluno → conteúdos)
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
+        name = "content_access_students",
+        joinColumns = @JoinColumn(name = "content_id"),
+        indexes = @Index(name = "idx_content_access_student", columnList = "student_id, content_id")
+    )
     @Column(name = "student_id")
     private Set<Long> accessStudentIds; 
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import lombok.experimental.SuperBuilder;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 
 @SuperBuilder
 @NoArgsConstructor
@@ -14,6 +17,14 @@ import jakarta.persistence.Entity;
 @Setter
 @Entity
 @DiscriminatorValue("DIET")
+@NamedEntityGraph(
+    name = "Diet.detail",
+    attributeNodes = {
+        @NamedAttributeNode(value = "creator", subgraph = "creator"),
+        @NamedAttributeNode("accessStudentIds")
+    },
+    subgraphs = @NamedSubgraph(name = "creator", attributeNodes = @NamedAttributeNode("user"))
+)
 public class Diet extends Content
 {  
     @Column(columnDefinition = "TEXT")
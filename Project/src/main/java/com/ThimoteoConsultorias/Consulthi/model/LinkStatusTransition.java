@@ -0,0 +1,64 @@
+package com.ThimoteoConsultorias.Consulthi.model;
+
+import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro imutável (somente inserção) de uma transição de status de StudentProfessionalLink.
+ * Guarda os IDs sem chave estrangeira, para sobreviver à remoção do link e dos usuários.
+ * fromStatus nulo indica criação; toStatus nulo indica remoção do vínculo.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Entity
+@Table(name = "link_status_transition", indexes = {
+    @Index(name = "idx_link_status_transition_link", columnList = "link_id, occurred_at")
+})
+public class LinkStatusTransition
+{
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "link_id", nullable = false)
+    private Long linkId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "professional_id", nullable = false)
+    private Long professionalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private LinkStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status")
+    private LinkStatus toStatus;
+
+    /** Usuário que disparou a transição (0 = Sistema). */
+    @Column(name = "actor_user_id", nullable = false)
+    private Long actorUserId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -8,6 +8,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
@@ -15,6 +17,9 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OrderColumn;
 import jakarta.persistence.DiscriminatorValue;
 
@@ -27,6 +32,16 @@ import java.util.Set;
 @Setter
 @Entity
 @DiscriminatorValue("MATERIAL")
+@NamedEntityGraph(
+    name = "Material.detail",
+    attributeNodes = {
+        @NamedAttributeNode(value = "creator", subgraph = "creator"),
+        @NamedAttributeNode("accessStudentIds"),
+        @NamedAttributeNode("tags"),
+        @NamedAttributeNode("contentBlocks")
+    },
+    subgraphs = @NamedSubgraph(name = "creator", attributeNodes = @NamedAttributeNode("user"))
+)
 public class Material extends Content
 {
     @ElementCollection(fetch = FetchType.EAGER)
@@ -34,6 +49,7 @@ public class Material extends Content
     @Enumerated(EnumType.STRING)
     private Set<ContentTag> tags;
 
+    @BatchSize(size = 32)
     @ElementCollection
     @CollectionTable(name = "material_blocks", joinColumns = @JoinColumn(name = "material_id"))
     @OrderColumn(name = "block_index")
@@ -0,0 +1,40 @@
+package com.ThimoteoConsultorias.Consulthi.model;
+
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.MuscleGroupWeeklyVolumeId;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Volume semanal pré-agregado de um aluno em um grupo muscular (séries, repetições e tonelagem).
+ * Mantido por upsert a cada registro de TrainingHistory e reconstruível a partir do histórico.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "muscle_group_weekly_volume")
+public class MuscleGroupWeeklyVolume
+{
+    @EmbeddedId
+    private MuscleGroupWeeklyVolumeId id;
+
+    @Column(nullable = false)
+    private long sets;
+
+    @Column(nullable = false)
+    private long repetitions;
+
+    @Column(name = "tonnage_kg", nullable = false)
+    private double tonnageKg;
+}
@@ -0,0 +1,49 @@
+package com.ThimoteoConsultorias.Consulthi.model;
+
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.PersonalRecordId;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado dos recordes pessoais de um aluno em um exercício: maiores valores já registrados.
+ * Atualizado por upsert monotônico (GREATEST) a cada sessão com séries registradas.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "personal_record")
+public class PersonalRecord
+{
+    @EmbeddedId
+    private PersonalRecordId id;
+
+    @Column(name = "max_load_kg", nullable = false)
+    private float maxLoadKg;
+
+    /** Repetições feitas com a carga máxima. */
+    @Column(name = "reps_at_max_load", nullable = false)
+    private int repsAtMaxLoad;
+
+    @Column(name = "max_repetitions", nullable = false)
+    private int maxRepetitions;
+
+    /** 1RM estimado (Epley) da melhor série. */
+    @Column(name = "estimated_one_rep_max_kg", nullable = false)
+    private float estimatedOneRepMaxKg;
+
+    private LocalDateTime updatedAt;
+}
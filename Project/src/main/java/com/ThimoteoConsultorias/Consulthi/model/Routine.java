@@ -9,14 +9,18 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToMany;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OrderColumn;
 import jakarta.persistence.DiscriminatorValue;
 
@@ -30,6 +34,16 @@ import java.util.Set;
 @Setter
 @Entity
 @DiscriminatorValue("ROUTINE")
+@NamedEntityGraph(
+    name = "Routine.detail",
+    attributeNodes = {
+        @NamedAttributeNode(value = "creator", subgraph = "creator"),
+        @NamedAttributeNode("accessStudentIds"),
+        @NamedAttributeNode("goals"),
+        @NamedAttributeNode("trainings")
+    },
+    subgraphs = @NamedSubgraph(name = "creator", attributeNodes = @NamedAttributeNode("user"))
+)
 public class Routine extends Content
 {
     @Enumerated(EnumType.STRING)
@@ -40,8 +54,16 @@ public class Routine extends Content
     @Enumerated(EnumType.STRING)
     private Set<GoalType> goals;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true) 
-    @JoinColumn(name = "routine_id")
+    /**
+     * Templates de treino compartilhados; a contagem de referências é mantida pelo TrainingService.
+     */
+    @ManyToMany
+    @JoinTable(
+        name = "routine_trainings",
+        joinColumns = @JoinColumn(name = "routine_id"),
+        inverseJoinColumns = @JoinColumn(name = "training_id"),
+        indexes = @Index(name = "idx_routine_trainings_training", columnList = "training_id")
+    )
     @OrderColumn(name = "training_order")
     private List<Training> trainings;
 }
\ No newline at end of file
@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -13,6 +15,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -27,7 +30,10 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "routine_instance")
+@Table(name = "routine_instance", indexes = {
+    @Index(name = "idx_routine_instance_student_dates", columnList = "student_user_id, start_date, end_date"),
+    @Index(name = "idx_routine_instance_routine_student", columnList = "routine_content_id, student_user_id")
+})
 public class RoutineInstance
 {
     @Id
@@ -47,6 +53,18 @@ public class RoutineInstance
     
     @Column(nullable = true)
     private LocalDate endDate;
+
+    /** Sessões registradas na instância; incrementado a cada registro e corrigido pelo job noturno. */
+    @Column(name = "completed_sessions", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int completedSessions = 0;
+
+    /** Sessões previstas até hoje: treinos da rotina × semanas decorridas da janela (recalculado à noite). */
+    @Column(name = "expected_sessions", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int expectedSessions = 0;
     
     @OneToMany(mappedBy = "routineInstance", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TrainingHistory> history;
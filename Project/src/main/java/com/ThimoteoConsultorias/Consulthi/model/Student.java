@@ -12,14 +12,18 @@ import lombok.Getter;
 import lombok.Setter;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 @Builder
@@ -28,6 +32,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@Table(name = "student", indexes = {
+    @Index(name = "idx_student_last_training", columnList = "last_training_at, user_id")
+})
 public class Student
 {
     @Id
@@ -45,4 +52,14 @@ public class Student
 
     @Embedded
     private Goal goal;
+
+    /** Última execução de treino registrada (mantida a cada registro de TrainingHistory). */
+    @JsonIgnore
+    @Column(name = "last_training_at")
+    private LocalDateTime lastTrainingAt;
+
+    /** Quando os profissionais foram avisados da inatividade atual; zerado quando o aluno volta a treinar. */
+    @JsonIgnore
+    @Column(name = "inactivity_notified_at")
+    private LocalDateTime inactivityNotifiedAt;
 }
\ No newline at end of file
@@ -14,8 +14,10 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
 
@@ -25,6 +27,9 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
+@Table(name = "student_professional_link", indexes = {
+    @Index(name = "idx_link_status_date_request", columnList = "status, date_request")
+})
 public class StudentProfessionalLink
 {
     @Id
@@ -9,7 +9,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -17,6 +21,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
@@ -30,7 +35,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "training")
+@Table(name = "training", indexes = {
+    @Index(name = "idx_training_structure_hash", columnList = "structure_hash", unique = true)
+})
 public class Training
 {
     @Id
@@ -39,11 +46,28 @@ public class Training
 
     private String name;
 
+    /**
+     * SHA-256 da forma canônica do treino (nome, grupos musculares e séries em ordem).
+     * Treinos são templates imutáveis compartilhados entre rotinas: estrutura igual, mesma linha.
+     */
+    @Column(name = "structure_hash", length = 64)
+    private String structureHash;
+
+    /**
+     * Quantas posições de rotinas apontam para este template; ao chegar a zero ele pode ser removido.
+     */
+    @Column(name = "reference_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int referenceCount = 0;
+
+    @BatchSize(size = 16)
     @ElementCollection
     @CollectionTable(name = "training_muscle_groups", joinColumns = @JoinColumn(name = "training_id"))
     @Enumerated(EnumType.STRING)
     private Set<MuscleGroup> targetMuscleGroups;
 
+    @BatchSize(size = 16)
     @ElementCollection
     @CollectionTable(name = "training_sets", joinColumns = @JoinColumn(name = "training_id"))
     @OrderColumn(name = "set_index")
@@ -6,11 +6,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -23,7 +25,10 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "training_history")
+@Table(name = "training_history", indexes = {
+    @Index(name = "idx_training_history_instance_executed", columnList = "routine_instance_id, execution_date_time, id"),
+    @Index(name = "idx_training_history_instance_client_key", columnList = "routine_instance_id, client_key", unique = true)
+})
 public class TrainingHistory
 {
     @Id
@@ -41,4 +46,21 @@ public class TrainingHistory
     private LocalDateTime executionDateTime;
     
     private String studentNotes;
+
+    /**
+     * Chave de idempotência gerada pelo cliente na sincronização offline. Nula nos registros feitos pelo formulário.
+     */
+    @Column(name = "client_key", length = 64)
+    private String clientKey;
+
+    /**
+     * Séries executadas na sessão, codificadas de forma compacta (ver SetLogCodec). Nulo se não registradas.
+     */
+    @Column(name = "set_log")
+    private byte[] setLog;
+
+    // Totais da sessão, gravados junto com o set_log para agregações em SQL sem decodificar
+    private Integer loggedSets;
+    private Integer totalRepetitions;
+    private Double totalVolumeKg;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.ThimoteoConsultorias.Consulthi.model;
+
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSessionRollupId;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumo incremental das execuções de um treino dentro de uma instância de rotina.
+ * Mantido por upsert a cada registro de TrainingHistory; os totais da instância
+ * são a soma das suas poucas linhas (uma por treino executado).
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "training_session_rollup")
+public class TrainingSessionRollup
+{
+    @EmbeddedId
+    private TrainingSessionRollupId id;
+
+    @Column(nullable = false)
+    private long sessions;
+
+    private LocalDateTime lastSessionAt;
+}
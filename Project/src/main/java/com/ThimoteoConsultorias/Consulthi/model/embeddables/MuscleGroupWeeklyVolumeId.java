@@ -0,0 +1,35 @@
+package com.ThimoteoConsultorias.Consulthi.model.embeddables;
+
+import com.ThimoteoConsultorias.Consulthi.enums.MuscleGroup;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class MuscleGroupWeeklyVolumeId implements Serializable
+{
+    @Column(name = "student_user_id")
+    private Long studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "muscle_group", length = 32)
+    private MuscleGroup muscleGroup;
+
+    /** Segunda-feira da semana do bucket. */
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+}
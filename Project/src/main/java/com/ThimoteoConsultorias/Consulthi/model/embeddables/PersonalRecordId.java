@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.model.embeddables;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class PersonalRecordId implements Serializable
+{
+    @Column(name = "student_user_id")
+    private Long studentId;
+
+    @Column(name = "exercise_id")
+    private Long exerciseId;
+}
@@ -0,0 +1,25 @@
+package com.ThimoteoConsultorias.Consulthi.model.embeddables;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class TrainingSessionRollupId implements Serializable
+{
+    @Column(name = "routine_instance_id")
+    private Long routineInstanceId;
+
+    @Column(name = "training_id")
+    private Long trainingId;
+}
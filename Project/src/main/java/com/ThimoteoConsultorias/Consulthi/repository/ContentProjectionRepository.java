@@ -0,0 +1,134 @@
+package com.ThimoteoConsultorias.Consulthi.repository;
+
+import com.ThimoteoConsultorias.Consulthi.enums.ContentTag;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+import com.ThimoteoConsultorias.Consulthi.enums.GoalType;
+import com.ThimoteoConsultorias.Consulthi.enums.MuscleGroup;
+import com.ThimoteoConsultorias.Consulthi.enums.RoutineLevel;
+import com.ThimoteoConsultorias.Consulthi.enums.TrainingTechnique;
+import com.ThimoteoConsultorias.Consulthi.model.Content;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.ContentBlock;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas de leitura que projetam Content diretamente em tuplas,
+ * sem hidratar entidades no contexto de persistência (formulário de edição).
+ */
+@Repository
+public interface ContentProjectionRepository extends org.springframework.data.repository.Repository<Content, Long>
+{
+    // ======== Projeções ========
+
+    interface ContentHeaderView
+    {
+        Long getId();
+        String getName();
+        String getDescription();
+        ContentType getContentType();
+        LocalDateTime getCreationDate();
+        LocalDateTime getLastModificationDate();
+        String getMealsEspecifications();
+        RoutineLevel getRoutineLevel();
+    }
+
+    interface ContentOwnershipView
+    {
+        Long getCreatorId();
+        ContentType getContentType();
+        String getName();
+    }
+
+    interface AccessGrantView
+    {
+        Long getContentId();
+        Long getStudentId();
+    }
+
+    interface TrainingView
+    {
+        Long getId();
+        String getName();
+    }
+
+    interface TrainingMuscleGroupView
+    {
+        Long getTrainingId();
+        MuscleGroup getMuscleGroup();
+    }
+
+    interface TrainingSetView
+    {
+        Long getTrainingId();
+        Integer getExerciseOrder();
+        Long getExerciseId();
+        Integer getSets();
+        Integer getRepetitions();
+        Integer getRestTimeSeconds();
+        TrainingTechnique getTechnique();
+        Float getLoadInKg();
+        Integer getDurationSeconds();
+    }
+
+    // ======== Consultas ========
+
+    @Query("SELECT c.id AS id, c.name AS name, c.description AS description, c.contentType AS contentType, " +
+           "c.creationDate AS creationDate, c.lastModificationDate AS lastModificationDate, " +
+           "d.mealsEspecifications AS mealsEspecifications, r.routineLevel AS routineLevel " +
+           "FROM Content c " +
+           "LEFT JOIN Diet d ON d.id = c.id " +
+           "LEFT JOIN Routine r ON r.id = c.id " +
+           "WHERE c.id = :contentId AND c.creator.id = :creatorId")
+    Optional<ContentHeaderView> findHeaderByIdAndCreatorId(Long contentId, Long creatorId);
+
+    @Query("SELECT s FROM Content c JOIN c.accessStudentIds s WHERE c.id = :contentId")
+    List<Long> findAccessStudentIds(Long contentId);
+
+    /**
+     * Linhas (conteúdo, aluno) do acesso granular de um Profissional; aluno nulo indica conteúdo aberto a todos.
+     */
+    @Query("SELECT c.id AS contentId, s AS studentId FROM Content c LEFT JOIN c.accessStudentIds s WHERE c.creator.id = :creatorId")
+    List<AccessGrantView> findAccessGrantsByCreatorId(Long creatorId);
+
+    @Query("SELECT c.creator.id FROM Content c WHERE c.id = :contentId")
+    Optional<Long> findCreatorIdById(Long contentId);
+
+    @Query("SELECT c.creator.id AS creatorId, c.contentType AS contentType, c.name AS name FROM Content c WHERE c.id = :contentId")
+    Optional<ContentOwnershipView> findOwnershipById(Long contentId);
+
+    @Query("SELECT c.id FROM Content c WHERE c.id IN :contentIds AND c.creator.id = :creatorId")
+    List<Long> findIdsByIdInAndCreatorId(Collection<Long> contentIds, Long creatorId);
+
+    @Query("SELECT t FROM Material m JOIN m.tags t WHERE m.id = :materialId")
+    List<ContentTag> findTags(Long materialId);
+
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.model.embeddables.ContentBlock(b.blockOrder, b.type, b.value) " +
+           "FROM Material m JOIN m.contentBlocks b WHERE m.id = :materialId ORDER BY INDEX(b)")
+    List<ContentBlock> findContentBlocks(Long materialId);
+
+    @Query("SELECT g FROM Routine r JOIN r.goals g WHERE r.id = :routineId")
+    List<GoalType> findGoals(Long routineId);
+
+    @Query("SELECT t.id AS id, t.name AS name FROM Routine r JOIN r.trainings t WHERE r.id = :routineId ORDER BY INDEX(t)")
+    List<TrainingView> findTrainings(Long routineId);
+
+    @Query("SELECT COUNT(t) FROM Routine r JOIN r.trainings t WHERE r.id = :routineId")
+    long countTrainings(Long routineId);
+
+    @Query("SELECT t.id AS trainingId, m AS muscleGroup " +
+           "FROM Routine r JOIN r.trainings t JOIN t.targetMuscleGroups m WHERE r.id = :routineId")
+    List<TrainingMuscleGroupView> findTrainingMuscleGroups(Long routineId);
+
+    @Query("SELECT t.id AS trainingId, s.exerciseOrder AS exerciseOrder, s.exerciseId AS exerciseId, s.sets AS sets, " +
+           "s.repetitions AS repetitions, s.restTimeSeconds AS restTimeSeconds, s.technique AS technique, " +
+           "s.loadInKg AS loadInKg, s.durationSeconds AS durationSeconds " +
+           "FROM Routine r JOIN r.trainings t JOIN t.trainingSets s " +
+           "WHERE r.id = :routineId ORDER BY INDEX(t), INDEX(s)")
+    List<TrainingSetView> findTrainingSets(Long routineId);
+}
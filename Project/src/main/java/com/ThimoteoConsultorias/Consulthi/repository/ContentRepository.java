@@ -1,13 +1,24 @@
 package com.ThimoteoConsultorias.Consulthi.repository;
 
+import com.ThimoteoConsultorias.Consulthi.dto.ContentFeedItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentSummaryDTO;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.model.Content;
 import com.ThimoteoConsultorias.Consulthi.model.Diet;
 import com.ThimoteoConsultorias.Consulthi.model.Material;
 import com.ThimoteoConsultorias.Consulthi.model.Routine;
+import com.ThimoteoConsultorias.Consulthi.model.Training;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +26,7 @@ import java.util.Optional;
 public interface ContentRepository extends JpaRepository<Content, Long>
 {
     List<Content> findByCreatorId(Long creatorId);
+    List<Content> findByCreatorIdAndContentTypeInOrderByLastModificationDateDescIdDesc(Long creatorId, Collection<ContentType> contentTypes);
     Optional<Content> findByIdAndCreatorId(Long contentId, Long creatorId);
 
     // ======== Polimórficas ========
@@ -26,4 +38,81 @@ public interface ContentRepository extends JpaRepository<Content, Long>
 
     List<Routine> findRoutinesByCreatorId(Long creatorId);
     Optional<Routine> findRoutineByIdAndCreatorId(Long contentId, Long creatorId);
-}
\ No newline at end of file
+
+    // ======== Planos de busca (Entity Graphs) ========
+
+    @Query("SELECT c.contentType FROM Content c WHERE c.id = :id")
+    Optional<ContentType> findContentTypeById(Long id);
+
+    @EntityGraph("Diet.detail")
+    @Query("SELECT d FROM Diet d WHERE d.id = :id")
+    Optional<Diet> findDietDetailById(Long id);
+
+    @EntityGraph("Material.detail")
+    @Query("SELECT m FROM Material m WHERE m.id = :id")
+    Optional<Material> findMaterialDetailById(Long id);
+
+    @EntityGraph("Routine.detail")
+    @Query("SELECT r FROM Routine r WHERE r.id = :id")
+    Optional<Routine> findRoutineDetailById(Long id);
+
+    /**
+     * Segunda passada da Rotina: inicializa as séries de todos os treinos em uma consulta.
+     */
+    @Query("SELECT DISTINCT t FROM Routine r JOIN r.trainings t LEFT JOIN FETCH t.trainingSets WHERE r.id = :routineId")
+    List<Training> fetchTrainingSetsByRoutineId(Long routineId);
+
+    /**
+     * Terceira passada da Rotina: inicializa os grupos musculares de todos os treinos em uma consulta.
+     */
+    @Query("SELECT DISTINCT t FROM Routine r JOIN r.trainings t LEFT JOIN FETCH t.targetMuscleGroups WHERE r.id = :routineId")
+    List<Training> fetchTrainingMuscleGroupsByRoutineId(Long routineId);
+
+    // ======== Índice de busca ========
+
+    @Query("SELECT c.id FROM Content c")
+    List<Long> findAllIds();
+
+    /**
+     * Conteúdos modificados a partir de 'since', em páginas por ID (releitura do índice de busca).
+     */
+    @Query("SELECT c FROM Content c WHERE c.lastModificationDate >= :since AND c.id > :afterId ORDER BY c.id")
+    List<Content> findModifiedSince(LocalDateTime since, Long afterId, Limit limit);
+
+    // ======== Acesso granular ========
+
+    @Modifying
+    @Query(value = "DELETE FROM content_access_students WHERE content_id IN (:contentIds) AND student_id IN (:studentIds)", nativeQuery = true)
+    int deleteAccessGrants(Collection<Long> contentIds, Collection<Long> studentIds);
+
+    // ======== Projeções ========
+
+    /**
+     * Feed do Aluno (RF06): conteúdos dos profissionais com vínculo no status informado,
+     * já filtrados pela lista de acesso granular.
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.ContentFeedItemDTO(c.id, c.name, c.contentType, u.fullName, c.lastModificationDate) " +
+           "FROM Content c " +
+           "JOIN c.creator p " +
+           "JOIN p.user u " +
+           "WHERE c.contentType IN :contentTypes " +
+           "AND EXISTS (SELECT l.id FROM StudentProfessionalLink l " +
+           "            WHERE l.professional = p AND l.student.id = :studentId AND l.status = :linkStatus) " +
+           "AND (c.accessStudentIds IS EMPTY OR :studentId MEMBER OF c.accessStudentIds) " +
+           "ORDER BY c.lastModificationDate DESC, c.id DESC")
+    List<ContentFeedItemDTO> findFeedForStudent(Long studentId, Collection<ContentType> contentTypes, LinkStatus linkStatus);
+
+    /**
+     * Listagem do Profissional paginada por chave (seek) em (lastModificationDate, id), do mais recente ao mais antigo.
+     * O cursor é o último item da página anterior; o prefixo deve chegar em minúsculas e com curingas escapados por '!'.
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.ContentSummaryDTO(c.id, c.name, c.contentType, c.lastModificationDate) " +
+           "FROM Content c " +
+           "WHERE c.creator.id = :creatorId " +
+           "AND c.contentType IN :contentTypes " +
+           "AND LOWER(c.name) LIKE :namePrefix ESCAPE '!' " +
+           "AND (c.lastModificationDate < :cursorDate OR (c.lastModificationDate = :cursorDate AND c.id < :cursorId)) " +
+           "ORDER BY c.lastModificationDate DESC, c.id DESC")
+    List<ContentSummaryDTO> findPageByCreator(Long creatorId, Collection<ContentType> contentTypes, String namePrefix,
+                                              LocalDateTime cursorDate, Long cursorId, Limit limit);
+}
@@ -3,8 +3,15 @@ package com.ThimoteoConsultorias.Consulthi.repository;
 import com.ThimoteoConsultorias.Consulthi.model.Exercise;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ExerciseRepository extends JpaRepository<Exercise, Long>
-{}
\ No newline at end of file
+{
+    @Query("SELECT e.id FROM Exercise e WHERE e.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+}
\ No newline at end of file
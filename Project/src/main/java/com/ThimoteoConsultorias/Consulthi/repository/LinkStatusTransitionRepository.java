@@ -0,0 +1,14 @@
+package com.ThimoteoConsultorias.Consulthi.repository;
+
+import com.ThimoteoConsultorias.Consulthi.model.LinkStatusTransition;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LinkStatusTransitionRepository extends JpaRepository<LinkStatusTransition, Long>
+{
+    List<LinkStatusTransition> findByLinkIdOrderByOccurredAtAscIdAsc(Long linkId);
+}
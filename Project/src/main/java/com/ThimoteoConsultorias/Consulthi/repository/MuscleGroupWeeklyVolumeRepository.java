@@ -0,0 +1,23 @@
+package com.ThimoteoConsultorias.Consulthi.repository;
+
+import com.ThimoteoConsultorias.Consulthi.model.MuscleGroupWeeklyVolume;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.MuscleGroupWeeklyVolumeId;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MuscleGroupWeeklyVolumeRepository extends JpaRepository<MuscleGroupWeeklyVolume, MuscleGroupWeeklyVolumeId>
+{
+    /**
+     * Buckets do aluno a partir da semana informada (pela chave primária student_user_id, muscle_group, week_start).
+     */
+    @Query("SELECT v FROM MuscleGroupWeeklyVolume v " +
+           "WHERE v.id.studentId = :studentId AND v.id.weekStart >= :fromWeek " +
+           "ORDER BY v.id.weekStart, v.id.muscleGroup")
+    List<MuscleGroupWeeklyVolume> findByStudentIdSince(Long studentId, LocalDate fromWeek);
+}
@@ -0,0 +1,17 @@
+package com.ThimoteoConsultorias.Consulthi.repository;
+
+import com.ThimoteoConsultorias.Consulthi.model.PersonalRecord;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.PersonalRecordId;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PersonalRecordRepository extends JpaRepository<PersonalRecord, PersonalRecordId>
+{
+    @Query("SELECT p FROM PersonalRecord p WHERE p.id.studentId = :studentId ORDER BY p.id.exerciseId")
+    List<PersonalRecord> findByStudentId(Long studentId);
+}
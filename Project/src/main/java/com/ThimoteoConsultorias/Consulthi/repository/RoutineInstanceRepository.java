@@ -1,25 +1,92 @@
 package com.ThimoteoConsultorias.Consulthi.repository;
 
-import com.ThimoteoConsultorias.Consulthi.model.Routine;
+import com.ThimoteoConsultorias.Consulthi.dto.AdherenceRosterItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineInstanceSummaryDTO;
 import com.ThimoteoConsultorias.Consulthi.model.RoutineInstance;
-import com.ThimoteoConsultorias.Consulthi.model.Student;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface RoutineInstanceRepository extends JpaRepository<RoutineInstance, Long>
 {
+    interface InstanceTrainingView
+    {
+        Long getInstanceId();
+        Long getTrainingId();
+        Long getCoachId();
+    }
+
+    /**
+     * Dentre os alunos informados, os que já possuem uma instância da rotina que se sobrepõe ao período.
+     */
+    @Query("SELECT DISTINCT ri.student.id FROM RoutineInstance ri " +
+           "WHERE ri.routine.id = :routineId AND ri.student.id IN :studentIds " +
+           "AND ri.startDate <= :periodEnd AND (ri.endDate IS NULL OR ri.endDate >= :periodStart)")
+    List<Long> findStudentIdsWithOverlappingInstance(Long routineId, Collection<Long> studentIds, LocalDate periodStart, LocalDate periodEnd);
+
+    boolean existsByIdAndStudentId(Long id, Long studentId);
+
+    // ======== Vigência (índice idx_routine_instance_student_dates) ========
+
+    /**
+     * Instâncias vigentes na data: startDate <= data e (endDate nulo ou >= data).
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.RoutineInstanceSummaryDTO(ri.id, r.id, r.name, r.routineLevel, u.fullName, ri.startDate, ri.endDate) " +
+           "FROM RoutineInstance ri JOIN ri.routine r JOIN r.creator p JOIN p.user u " +
+           "WHERE ri.student.id = :studentId AND ri.startDate <= :date AND (ri.endDate IS NULL OR ri.endDate >= :date) " +
+           "ORDER BY ri.startDate DESC, ri.id DESC")
+    List<RoutineInstanceSummaryDTO> findActiveSummariesByStudentId(Long studentId, LocalDate date);
+
+    /**
+     * Arquivo: instâncias encerradas antes da data, em ordem decrescente de (endDate, id), a partir do cursor.
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.RoutineInstanceSummaryDTO(ri.id, r.id, r.name, r.routineLevel, u.fullName, ri.startDate, ri.endDate) " +
+           "FROM RoutineInstance ri JOIN ri.routine r JOIN r.creator p JOIN p.user u " +
+           "WHERE ri.student.id = :studentId AND ri.endDate < :date " +
+           "AND (ri.endDate < :cursorDate OR (ri.endDate = :cursorDate AND ri.id < :cursorId)) " +
+           "ORDER BY ri.endDate DESC, ri.id DESC")
+    List<RoutineInstanceSummaryDTO> findArchivedSummariesByStudentId(Long studentId, LocalDate date, LocalDate cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Instância vigente na data que liga o aluno à rotina (a mais recente, se houver mais de uma).
+     */
+    @Query("SELECT ri FROM RoutineInstance ri " +
+           "WHERE ri.student.id = :studentId AND ri.routine.id = :routineId " +
+           "AND ri.startDate <= :date AND (ri.endDate IS NULL OR ri.endDate >= :date) " +
+           "ORDER BY ri.startDate DESC, ri.id DESC")
+    List<RoutineInstance> findActiveByStudentIdAndRoutineId(Long studentId, Long routineId, LocalDate date, Limit limit);
+
+    /**
+     * Pares (instância, treino da rotina) das instâncias que pertencem ao aluno, com o autor da rotina.
+     * Valida a posse de todas as instâncias de um lote em uma única consulta.
+     */
+    @Query("SELECT ri.id AS instanceId, t.id AS trainingId, r.creator.id AS coachId " +
+           "FROM RoutineInstance ri JOIN ri.routine r JOIN r.trainings t " +
+           "WHERE ri.student.id = :studentId AND ri.id IN :instanceIds")
+    List<InstanceTrainingView> findTrainingsOfStudentInstances(Long studentId, Collection<Long> instanceIds);
+
     /**
-     * Busca todas as instâncias de rotina ativas para um aluno (RF06).
+     * Incremento atômico do contador de sessões feitas (sem ler a instância).
      */
-    List<RoutineInstance> findByStudent(Student student);
+    @Modifying
+    @Query("UPDATE RoutineInstance ri SET ri.completedSessions = ri.completedSessions + 1 WHERE ri.id = :id")
+    int incrementCompletedSessions(Long id);
 
     /**
-     * Busca uma instância de rotina ativa para um aluno e um template de rotina específicos.
+     * Instâncias ativas na data das rotinas do profissional, da menor para a maior aderência
+     * (instâncias sem sessões previstas ainda ficam por último).
      */
-    Optional<RoutineInstance> findByStudentAndRoutine(Student student, Routine routine);
-}
\ No newline at end of file
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.AdherenceRosterItemDTO(ri.id, s.id, u.fullName, r.name, ri.startDate, ri.endDate, ri.completedSessions, ri.expectedSessions) " +
+           "FROM RoutineInstance ri JOIN ri.routine r JOIN ri.student s JOIN s.user u " +
+           "WHERE r.creator.id = :professionalId AND ri.startDate <= :date AND (ri.endDate IS NULL OR ri.endDate >= :date) " +
+           "ORDER BY (ri.completedSessions * 1.0) / NULLIF(ri.expectedSessions, 0) ASC NULLS LAST, u.fullName")
+    List<AdherenceRosterItemDTO> findAdherenceRosterByProfessionalId(Long professionalId, LocalDate date);
+}
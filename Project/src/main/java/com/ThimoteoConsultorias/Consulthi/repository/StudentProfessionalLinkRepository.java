@@ -1,20 +1,54 @@
 package com.ThimoteoConsultorias.Consulthi.repository;
 
+import com.ThimoteoConsultorias.Consulthi.dto.ProfessionalBacklogDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.model.Professional;
 import com.ThimoteoConsultorias.Consulthi.model.Student;
 import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.time.LocalDateTime;
 
 @Repository
 public interface StudentProfessionalLinkRepository extends JpaRepository<StudentProfessionalLink, Long>
 {
+    interface StudentProfessionalPair
+    {
+        Long getStudentId();
+        Long getProfessionalId();
+    }
+
+    /** Linha afetada por uma transição/remoção em lote (colunas do RETURNING). */
+    interface LinkChangeView
+    {
+        Long getId();
+        Long getStudentId();
+        Long getProfessionalId();
+    }
+
+    interface LinkBacklogSummaryView
+    {
+        Long getPendingCount();
+        LocalDateTime getOldestRequest();
+    }
+
+    /** Linha do log de auditoria da escalada. */
+    interface EscalatedLinkView
+    {
+        Long getLinkId();
+        String getStudentName();
+        String getProfessionalName();
+        LocalDateTime getDateRequest();
+    }
+
     List<StudentProfessionalLink> findByProfessional(Professional professional);
     List<StudentProfessionalLink> findByStudent(Student student);
     List<StudentProfessionalLink> findByProfessionalAndStatusIn(Professional professional, Collection<LinkStatus> status);
@@ -22,6 +56,84 @@ public interface StudentProfessionalLinkRepository extends JpaRepository<Student
     List<StudentProfessionalLink> findByStatusInAndDateRequestBefore(Collection<LinkStatus> status, LocalDateTime dateTime);
 
 
+    @Query("SELECT l.professional.id FROM StudentProfessionalLink l WHERE l.student.id = :studentUserId AND l.status IN :status")
+    List<Long> findProfessionalIdsByStudentIdAndStatusIn(Long studentUserId, Collection<LinkStatus> status);
+
+    @Query("SELECT l.student.id FROM StudentProfessionalLink l WHERE l.professional.id = :professionalUserId AND l.student.id IN :studentUserIds AND l.status IN :status")
+    List<Long> findStudentIdsByProfessionalIdAndStudentIdInAndStatusIn(Long professionalUserId, Collection<Long> studentUserIds, Collection<LinkStatus> status);
+
+    @Query("SELECT l.student.id AS studentId, l.professional.id AS professionalId FROM StudentProfessionalLink l WHERE l.student.id IN :studentUserIds AND l.status IN :status")
+    List<StudentProfessionalPair> findPairsByStudentIdInAndStatusIn(Collection<Long> studentUserIds, Collection<LinkStatus> status);
+
+    // ======== Relatório de escalada ========
+
+    @Query("SELECT COUNT(l) AS pendingCount, MIN(l.dateRequest) AS oldestRequest FROM StudentProfessionalLink l " +
+           "WHERE l.status = :status AND l.dateRequest < :cutoff")
+    LinkBacklogSummaryView summarizeByStatusAndDateRequestBefore(LinkStatus status, LocalDateTime cutoff);
+
+    /**
+     * Profissionais com mais solicitações no status anteriores ao corte (empate: a mais antiga primeiro).
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.ProfessionalBacklogDTO(p.id, u.fullName, COUNT(l), MIN(l.dateRequest)) " +
+           "FROM StudentProfessionalLink l JOIN l.professional p JOIN p.user u " +
+           "WHERE l.status = :status AND l.dateRequest < :cutoff " +
+           "GROUP BY p.id, u.fullName " +
+           "ORDER BY COUNT(l) DESC, MIN(l.dateRequest)")
+    List<ProfessionalBacklogDTO> findBacklogByProfessional(LinkStatus status, LocalDateTime cutoff, Limit limit);
+
+    @Query("SELECT l.id AS linkId, su.fullName AS studentName, pu.fullName AS professionalName, l.dateRequest AS dateRequest " +
+           "FROM StudentProfessionalLink l JOIN l.student s JOIN s.user su JOIN l.professional p JOIN p.user pu " +
+           "WHERE l.status = :status AND l.dateRequest < :cutoff ORDER BY l.dateRequest")
+    List<EscalatedLinkView> findEscalationDetails(LinkStatus status, LocalDateTime cutoff);
+
+    @Query("SELECT l.student.id AS studentId, l.professional.id AS professionalId FROM StudentProfessionalLink l WHERE l.id = :linkId")
+    Optional<StudentProfessionalPair> findPairById(Long linkId);
+
+    boolean existsByIdInAndProfessionalIdNot(Collection<Long> linkIds, Long professionalUserId);
+
     long countByStudentAndStatusIn(Student student, Collection<LinkStatus> status);
     long countByStudentUserIdAndProfessionalUserIdAndStatusIn(Long studentUserId, Long professionalUserId, Collection<LinkStatus> status);
-}
\ No newline at end of file
+
+    // ======== Transições atômicas ========
+
+    /**
+     * Transição condicional de um link: só altera se ele ainda estiver no status de origem.
+     * @return 1 se a transição ocorreu, 0 se outro fluxo já alterou (ou removeu) o link.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StudentProfessionalLink l SET l.status = :toStatus WHERE l.id = :linkId AND l.status = :fromStatus")
+    int transitionStatus(Long linkId, LinkStatus fromStatus, LinkStatus toStatus);
+
+    // ======== Operações em lote ========
+
+    /**
+     * Transição condicional em lote: só altera os links do profissional que ainda estão no status de origem.
+     * Os status são passados pelo nome (coluna EnumType.STRING).
+     */
+    @Query(value = "UPDATE student_professional_link SET status = :toStatus " +
+                   "WHERE id IN (:linkIds) AND professional_id = :professionalUserId AND status = :fromStatus " +
+                   "RETURNING id AS \"id\", student_id AS \"studentId\", professional_id AS \"professionalId\"",
+           nativeQuery = true)
+    List<LinkChangeView> transitionStatusOfProfessional(Collection<Long> linkIds, Long professionalUserId, String fromStatus, String toStatus);
+
+    /**
+     * Remoção em lote dos links do profissional que estão no status informado.
+     */
+    @Query(value = "DELETE FROM student_professional_link " +
+                   "WHERE id IN (:linkIds) AND professional_id = :professionalUserId AND status = :status " +
+                   "RETURNING id AS \"id\", student_id AS \"studentId\", professional_id AS \"professionalId\"",
+           nativeQuery = true)
+    List<LinkChangeView> deleteOfProfessionalWithStatus(Collection<Long> linkIds, Long professionalUserId, String status);
+
+    /**
+     * Remove um lote de até batchSize links no status informado com solicitação anterior ao corte.
+     * Linhas travadas por outra transação são puladas e ficam para o próximo lote/execução.
+     */
+    @Query(value = "DELETE FROM student_professional_link WHERE id IN (" +
+                   "    SELECT id FROM student_professional_link " +
+                   "    WHERE status = :status AND date_request < :cutoff " +
+                   "    ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING id AS \"id\", student_id AS \"studentId\", professional_id AS \"professionalId\"",
+           nativeQuery = true)
+    List<LinkChangeView> deleteBatchByStatusAndDateRequestBefore(String status, LocalDateTime cutoff, int batchSize);
+}
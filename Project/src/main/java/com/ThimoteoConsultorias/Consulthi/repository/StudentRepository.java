@@ -2,9 +2,55 @@ package com.ThimoteoConsultorias.Consulthi.repository;
 
 import com.ThimoteoConsultorias.Consulthi.model.Student;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long>
-{}
\ No newline at end of file
+{
+    interface StudentNameView
+    {
+        Long getId();
+        String getFullName();
+    }
+
+    boolean existsByLastTrainingAtIsNotNull();
+
+    /**
+     * Avança a última atividade do aluno (nunca retrocede) e encerra o aviso de inatividade.
+     */
+    @Modifying
+    @Query("UPDATE Student s SET s.lastTrainingAt = :executedAt, s.inactivityNotifiedAt = NULL " +
+           "WHERE s.id = :studentId AND (s.lastTrainingAt IS NULL OR s.lastTrainingAt < :executedAt)")
+    int advanceLastTrainingAt(Long studentId, LocalDateTime executedAt);
+
+    /**
+     * Alunos sem treino desde o corte e ainda não avisados, por chave (id > afterId), já com o nome.
+     */
+    @Query("SELECT s.id AS id, u.fullName AS fullName FROM Student s JOIN s.user u " +
+           "WHERE s.lastTrainingAt < :cutoff AND s.inactivityNotifiedAt IS NULL AND s.id > :afterId " +
+           "ORDER BY s.id")
+    List<StudentNameView> findInactiveAfter(LocalDateTime cutoff, Long afterId, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Student s SET s.inactivityNotifiedAt = :notifiedAt WHERE s.id IN :studentIds")
+    int markInactivityNotified(Collection<Long> studentIds, LocalDateTime notifiedAt);
+
+    /**
+     * Carga inicial de last_training_at a partir do histórico.
+     */
+    @Modifying
+    @Query(value = "UPDATE student s SET last_training_at = (" +
+                   "    SELECT MAX(h.execution_date_time) FROM training_history h " +
+                   "    JOIN routine_instance ri ON ri.id = h.routine_instance_id WHERE ri.student_user_id = s.user_id) " +
+                   "WHERE s.last_training_at IS NULL",
+           nativeQuery = true)
+    int backfillLastTrainingAt();
+}
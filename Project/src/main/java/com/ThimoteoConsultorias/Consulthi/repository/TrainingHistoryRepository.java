@@ -1,14 +1,41 @@
 package com.ThimoteoConsultorias.Consulthi.repository;
 
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogAggregateDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingHistoryItemDTO;
 import com.ThimoteoConsultorias.Consulthi.model.TrainingHistory;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TrainingHistoryRepository extends JpaRepository<TrainingHistory, Long>
 {
-    List<TrainingHistory> findByRoutineInstanceIdOrderByExecutionDateTimeDesc(Long routineInstanceId);
+    Optional<TrainingHistory> findByIdAndRoutineInstanceStudentId(Long id, Long studentId);
+
+    /**
+     * Página do histórico por chave (executionDateTime, id), em ordem decrescente,
+     * apoiada em idx_training_history_instance_executed.
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.TrainingHistoryItemDTO(h.id, t.id, t.name, h.executionDateTime, h.studentNotes, h.loggedSets, h.totalVolumeKg) " +
+           "FROM TrainingHistory h JOIN h.training t " +
+           "WHERE h.routineInstance.id = :routineInstanceId " +
+           "AND (h.executionDateTime < :cursorDate OR (h.executionDateTime = :cursorDate AND h.id < :cursorId)) " +
+           "ORDER BY h.executionDateTime DESC, h.id DESC")
+    List<TrainingHistoryItemDTO> findPageByRoutineInstanceId(Long routineInstanceId, LocalDateTime cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Totais das séries registradas pelo aluno no período, por treino, a partir das colunas de resumo
+     * gravadas junto com o set_log (sem decodificar os blobs).
+     */
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.SetLogAggregateDTO(t.id, t.name, COUNT(h), SUM(h.loggedSets), SUM(h.totalRepetitions), SUM(h.totalVolumeKg)) " +
+           "FROM TrainingHistory h JOIN h.training t " +
+           "WHERE h.routineInstance.student.id = :studentId AND h.executionDateTime >= :from AND h.executionDateTime < :to " +
+           "GROUP BY t.id, t.name ORDER BY t.name")
+    List<SetLogAggregateDTO> aggregateSetLogsByStudent(Long studentId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
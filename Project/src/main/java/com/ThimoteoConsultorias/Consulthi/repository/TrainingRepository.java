@@ -3,8 +3,33 @@ package com.ThimoteoConsultorias.Consulthi.repository;
 import com.ThimoteoConsultorias.Consulthi.model.Training;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, Long>
-{}
\ No newline at end of file
+{
+    // ======== Templates compartilhados ========
+
+    List<Training> findByStructureHashIn(Collection<String> structureHashes);
+
+    List<Training> findByStructureHashIsNullOrderByIdAsc();
+
+    /**
+     * Ajuste atômico da contagem de referências; retorna 0 se o template não existir mais.
+     */
+    @Modifying
+    @Query("UPDATE Training t SET t.referenceCount = t.referenceCount + :delta WHERE t.id = :trainingId")
+    int adjustReferenceCount(Long trainingId, int delta);
+
+    /**
+     * Templates sem nenhuma rotina apontando para eles e sem histórico de execução associado.
+     */
+    @Query("SELECT t FROM Training t WHERE t.id IN :trainingIds AND t.referenceCount <= 0 " +
+           "AND NOT EXISTS (SELECT h.id FROM TrainingHistory h WHERE h.training = t)")
+    List<Training> findUnreferencedByIdIn(Collection<Long> trainingIds);
+}
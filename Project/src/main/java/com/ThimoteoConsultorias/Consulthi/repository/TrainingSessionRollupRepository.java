@@ -0,0 +1,46 @@
+package com.ThimoteoConsultorias.Consulthi.repository;
+
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSessionSummaryDTO;
+import com.ThimoteoConsultorias.Consulthi.model.TrainingSessionRollup;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSessionRollupId;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TrainingSessionRollupRepository extends JpaRepository<TrainingSessionRollup, TrainingSessionRollupId>
+{
+    /**
+     * Soma uma sessão ao rollup do treino na instância, criando a linha na primeira execução.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO training_session_rollup (routine_instance_id, training_id, sessions, last_session_at) " +
+                   "VALUES (:routineInstanceId, :trainingId, 1, :executedAt) " +
+                   "ON CONFLICT (routine_instance_id, training_id) DO UPDATE SET " +
+                   "sessions = training_session_rollup.sessions + 1, " +
+                   "last_session_at = GREATEST(training_session_rollup.last_session_at, EXCLUDED.last_session_at)",
+           nativeQuery = true)
+    int incrementSessions(Long routineInstanceId, Long trainingId, LocalDateTime executedAt);
+
+    /**
+     * Recalcula todos os rollups a partir do histórico (carga inicial ou após fusão de treinos).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO training_session_rollup (routine_instance_id, training_id, sessions, last_session_at) " +
+                   "SELECT routine_instance_id, training_template_id, COUNT(*), MAX(execution_date_time) " +
+                   "FROM training_history GROUP BY routine_instance_id, training_template_id " +
+                   "ON CONFLICT (routine_instance_id, training_id) DO UPDATE SET " +
+                   "sessions = EXCLUDED.sessions, last_session_at = EXCLUDED.last_session_at",
+           nativeQuery = true)
+    int rebuildFromHistory();
+
+    @Query("SELECT new com.ThimoteoConsultorias.Consulthi.dto.TrainingSessionSummaryDTO(t.id, t.name, r.sessions, r.lastSessionAt) " +
+           "FROM TrainingSessionRollup r JOIN Training t ON t.id = r.id.trainingId " +
+           "WHERE r.id.routineInstanceId = :routineInstanceId ORDER BY r.lastSessionAt DESC")
+    List<TrainingSessionSummaryDTO> findSummariesByRoutineInstanceId(Long routineInstanceId);
+}
@@ -25,4 +25,20 @@ public interface UserRepository extends JpaRepository<User, Long>
            "LEFT JOIN FETCH prof.expertiseAreas " +
            "LEFT JOIN FETCH u.roles")
     public List<User> findAllWithProfilesAndRoles();
-}
\ No newline at end of file
+
+    @Query("SELECT u.fullName FROM User u WHERE u.id = :userId")
+    public Optional<String> findFullNameById(Long userId);
+
+    /**
+     * Ativa, em uma instrução, os alunos que não têm outro vínculo ACCEPTED além dos informados
+     * (primeira aceitação) e ainda estão inativos.
+     * @return IDs dos usuários ativados.
+     */
+    @Query(value = "UPDATE app_user u SET active = true " +
+                   "WHERE u.id IN (:studentUserIds) AND u.active = false " +
+                   "AND NOT EXISTS (SELECT 1 FROM student_professional_link l " +
+                   "                WHERE l.student_id = u.id AND l.status = 'ACCEPTED' AND l.id NOT IN (:acceptedLinkIds)) " +
+                   "RETURNING u.id",
+           nativeQuery = true)
+    public List<Long> activateFirstAcceptedStudents(Collection<Long> studentUserIds, Collection<Long> acceptedLinkIds);
+}
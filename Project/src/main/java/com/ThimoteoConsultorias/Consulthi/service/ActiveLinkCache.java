@@ -0,0 +1,160 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.CacheStatsDTO;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória (LRU + TTL por aluno) dos profissionais com vínculo ACCEPTED,
+ * em um long[] ordenado (busca binária), usado nas verificações de acesso a conteúdo (RF06).
+ * Toda mudança de vínculo invalida o aluno após o commit; o TTL cobre remoções em cascata.
+ */
+@Component
+public class ActiveLinkCache
+{
+    // ----------------------------------------------------
+    // 1. ESTADO
+    // ----------------------------------------------------
+    private static final String NAME = "active-links";
+
+    /** Bytes por entrada: cabeçalho do array + 8 por profissional. */
+    private static final int BASE_WEIGHT = 64;
+
+    private final int maxStudents;
+    private final long timeToLiveMillis;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long invalidationEpoch;
+    private long currentWeight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Entry(long[] professionalIds, long expiresAt)
+    {
+        long weight()
+        {
+            return BASE_WEIGHT + 8L * professionalIds.length;
+        }
+    }
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public ActiveLinkCache
+    (
+        @Value("${consulthi.cache.active-links.max-students:50000}") int maxStudents,
+        @Value("${consulthi.cache.active-links.time-to-live:PT10M}") Duration timeToLive
+    )
+    {
+        this.maxStudents = maxStudents;
+        this.timeToLiveMillis = timeToLive.toMillis();
+    }
+
+    // ----------------------------------------------------
+    // 3. OPERAÇÕES
+    // ----------------------------------------------------
+
+    /**
+     * Retorna os IDs (ordenados) dos profissionais com vínculo ativo do aluno,
+     * carregando-os pelo loader em caso de ausência ou expiração. O array não deve ser alterado.
+     */
+    public long[] get(Long studentId, Supplier<Collection<Long>> loader)
+    {
+        long epochAtLoad;
+
+        synchronized (this)
+        {
+            Entry entry = entries.get(studentId);
+
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis())
+            {
+                hits++;
+                return entry.professionalIds();
+            }
+
+            if (entry != null)
+            {
+                entries.remove(studentId);
+                currentWeight -= entry.weight();
+            }
+
+            misses++;
+            epochAtLoad = invalidationEpoch;
+        }
+
+        long[] loaded = loader.get().stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+
+        synchronized (this)
+        {
+            // Um vínculo alterado durante a carga pode tornar o conjunto lido obsoleto
+            if (epochAtLoad == invalidationEpoch && !entries.containsKey(studentId))
+            {
+                Entry entry = new Entry(loaded, System.currentTimeMillis() + timeToLiveMillis);
+                entries.put(studentId, entry);
+                currentWeight += entry.weight();
+                evictToCapacity();
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Invalida o conjunto de um aluno. Deve ser chamado após o commit da mudança de vínculo.
+     */
+    public synchronized void evict(Long studentId)
+    {
+        invalidationEpoch++;
+        Entry removed = entries.remove(studentId);
+        if (removed != null)
+            currentWeight -= removed.weight();
+    }
+
+    /**
+     * Invalida todos os alunos (ex.: remoção de um Profissional, que leva seus vínculos em cascata).
+     */
+    public synchronized void invalidateAll()
+    {
+        invalidationEpoch++;
+        entries.clear();
+        currentWeight = 0;
+    }
+
+    public synchronized CacheStatsDTO getStats()
+    {
+        return CacheStatsDTO.builder()
+            .name(NAME)
+            .size(entries.size())
+            .weight(currentWeight)
+            .hits(hits)
+            .misses(misses)
+            .evictions(evictions)
+            .build();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private void evictToCapacity()
+    {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+
+        while (entries.size() > maxStudents && iterator.hasNext())
+        {
+            currentWeight -= iterator.next().getValue().weight();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.AdherenceRosterItemDTO;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Aderência às rotinas: sessões feitas × sessões previstas por RoutineInstance.
+ * Os contadores ficam na própria instância; o de sessões feitas é incrementado a cada registro
+ * e o job noturno recalcula ambos (avanço da janela e correção de desvios).
+ * Considera-se que cada treino da rotina é feito uma vez por semana.
+ */
+@Service
+public class AdherenceService
+{
+    // ----------------------------------------------------
+    // 1. DEPENDÊNCIAS
+    // ----------------------------------------------------
+
+    /** Instâncias encerradas há até esse número de dias ainda são recalculadas (sincronizações atrasadas). */
+    private static final int RECOMPUTE_GRACE_DAYS = 7;
+
+    private final RoutineInstanceService routineInstanceService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public AdherenceService(RoutineInstanceService routineInstanceService, JdbcTemplate jdbcTemplate)
+    {
+        this.routineInstanceService = routineInstanceService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ----------------------------------------------------
+    // 3. MÉTODOS DE DOMÍNIO
+    // ----------------------------------------------------
+
+    /**
+     * Roster de aderência do profissional: instâncias ativas hoje, da menor para a maior aderência.
+     */
+    public List<AdherenceRosterItemDTO> getRosterByProfessional(Long professionalUserId)
+    {
+        return routineInstanceService.getAdherenceRosterByProfessional(professionalUserId, LocalDate.now());
+    }
+
+    /**
+     * Job noturno: recalcula, em um único UPDATE, as sessões feitas (contagem do histórico) e as previstas
+     * até hoje das instâncias ativas ou recém-encerradas.
+     * @return Quantas instâncias foram atualizadas.
+     */
+    @Scheduled(cron = "0 30 1 * * *")
+    @Transactional
+    public int recomputeCounters()
+    {
+        int updated = jdbcTemplate.update(
+            "UPDATE routine_instance ri SET " +
+            "completed_sessions = (SELECT COUNT(*) FROM training_history h WHERE h.routine_instance_id = ri.id), " +
+            "expected_sessions = CASE WHEN ri.start_date > CURRENT_DATE THEN 0 ELSE " +
+            "    (SELECT COUNT(*) FROM routine_trainings rt WHERE rt.routine_id = ri.routine_content_id) * " +
+            "    CEIL((LEAST(COALESCE(ri.end_date, CURRENT_DATE), CURRENT_DATE) - ri.start_date + 1) / 7.0) END " +
+            "WHERE ri.end_date IS NULL OR ri.end_date >= CURRENT_DATE - " + RECOMPUTE_GRACE_DAYS);
+
+        System.out.println("--- SCHEDULER: Aderência recalculada para " + updated + " instâncias de rotina ---");
+
+        return updated;
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    /**
+     * Sessões previstas até a data: treinos da rotina × semanas iniciadas da janela [início, min(fim, data)].
+     * Mesma regra do job noturno.
+     */
+    static int expectedSessions(long trainingCount, LocalDate startDate, LocalDate endDate, LocalDate today)
+    {
+        if (startDate.isAfter(today))
+            return 0;
+
+        LocalDate windowEnd = endDate != null && endDate.isBefore(today) ? endDate : today;
+        long days = ChronoUnit.DAYS.between(startDate, windowEnd) + 1;
+
+        return (int) (trainingCount * ((days + 6) / 7));
+    }
+}
@@ -1,5 +1,6 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
+import com.ThimoteoConsultorias.Consulthi.dto.CacheStatsDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.Role;
 import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
@@ -31,6 +32,11 @@ public class AdministratorService
     private final ProfessionalService professionalService;
     private final StudentService studentService;
     private final UserService userService;
+    private final ContentCache contentCache;
+    private final ContentAccessIndex contentAccessIndex;
+    private final TrainingVolumeService trainingVolumeService;
+    private final PersonalRecordCache personalRecordCache;
+    private final ActiveLinkCache activeLinkCache;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
@@ -43,7 +49,12 @@ public class AdministratorService
         NotificationService notificationService,
         ProfessionalService professionalService,
         StudentService studentService,
-        UserService userService
+        UserService userService,
+        ContentCache contentCache,
+        ContentAccessIndex contentAccessIndex,
+        TrainingVolumeService trainingVolumeService,
+        PersonalRecordCache personalRecordCache,
+        ActiveLinkCache activeLinkCache
     )
     {
         this.inactivationSchedulingRepository = inactivationSchedulingRepository;
@@ -53,6 +64,11 @@ public class AdministratorService
         this.professionalService = professionalService;
         this.studentService = studentService;
         this.userService = userService;
+        this.contentCache = contentCache;
+        this.contentAccessIndex = contentAccessIndex;
+        this.trainingVolumeService = trainingVolumeService;
+        this.personalRecordCache = personalRecordCache;
+        this.activeLinkCache = activeLinkCache;
     }
 
     // ----------------------------------------------------
@@ -137,6 +153,27 @@ public class AdministratorService
             .collect(Collectors.toList());
     }
 
+    /**
+     * Retorna as métricas dos caches em memória da aplicação.
+     */
+    public List<CacheStatsDTO> getCacheStats()
+    {
+        return List.of(contentCache.getStats(), contentAccessIndex.getStats(), personalRecordCache.getStats(), activeLinkCache.getStats());
+    }
+
+    /*
+     * MANUTENÇÃO
+     */
+
+    /**
+     * Reconstrói, a partir do histórico, os buckets semanais de volume de treino de todos os alunos.
+     * @return Quantos buckets foram gravados.
+     */
+    public int rebuildTrainingVolume()
+    {
+        return trainingVolumeService.rebuildFromHistory();
+    }
+
     /*
      * DELETE
      */
@@ -199,7 +236,9 @@ public class AdministratorService
             inactivationSchedulingRepository.delete(schedule);
         });
 
+        linkService.recordLinkRemovalsOfUser(userId);
         userRepository.delete(userToDelete);
+        linkService.evictActiveLinksOfRemovedUser(userToDelete);
         System.out.println("ADMIN: Usuário " + userId + " removido permanentemente.");
     }
 }
\ No newline at end of file
@@ -0,0 +1,392 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.CacheStatsDTO;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository.AccessGrantView;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice invertido de acesso granular (Content.accessStudentIds), carregado sob demanda por Profissional.
+ * Cada conteúdo do profissional recebe um ordinal denso; o acesso é mantido em bitmaps (BitSet)
+ * por aluno, mais um bitmap dos conteúdos abertos a todos (lista de acesso vazia).
+ * Responde "o aluno S vê o conteúdo C?" e "quais conteúdos S vê?" sem carregar as listas de acesso.
+ * Não verifica vínculo: isso continua a cargo do StudentProfessionalLinkService.
+ */
+@Component
+public class ContentAccessIndex
+{
+    // ----------------------------------------------------
+    // 1. ESTADO
+    // ----------------------------------------------------
+    private static final String NAME = "content-access";
+
+    private final ContentProjectionRepository contentProjectionRepository;
+
+    private final ConcurrentHashMap<Long, ProfessionalAccess> byProfessional = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> ownerByContent = new ConcurrentHashMap<>();
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public ContentAccessIndex(ContentProjectionRepository contentProjectionRepository)
+    {
+        this.contentProjectionRepository = contentProjectionRepository;
+    }
+
+    // ----------------------------------------------------
+    // 3. CONSULTAS
+    // ----------------------------------------------------
+
+    /**
+     * Verifica o acesso granular do aluno ao conteúdo (lista vazia libera para todos).
+     */
+    public boolean canAccess(Long studentUserId, Long contentId)
+    {
+        Optional<Long> owner = ownerOf(contentId);
+        return owner.isPresent() && accessOf(owner.get()).canAccess(studentUserId, contentId);
+    }
+
+    /**
+     * Autor do conteúdo (mantido em memória após a primeira leitura); vazio se o conteúdo não existir.
+     */
+    public Optional<Long> ownerOf(Long contentId)
+    {
+        Long owner = ownerByContent.get(contentId);
+        if (owner != null)
+            return Optional.of(owner);
+
+        Optional<Long> loaded = contentProjectionRepository.findCreatorIdById(contentId);
+        loaded.ifPresent(id -> ownerByContent.putIfAbsent(contentId, id));
+        return loaded;
+    }
+
+    /**
+     * IDs dos conteúdos dos profissionais informados que o aluno pode ver pelo acesso granular.
+     */
+    public Set<Long> visibleContentIds(Long studentUserId, Collection<Long> professionalIds)
+    {
+        Set<Long> visible = new HashSet<>();
+        for (Long professionalId : professionalIds)
+            accessOf(professionalId).collectVisible(studentUserId, visible);
+
+        return visible;
+    }
+
+    /**
+     * Conteúdos do profissional cuja lista de acesso ficaria vazia (portanto aberta a todos)
+     * se os alunos informados fossem revogados.
+     */
+    public Set<Long> contentsEmptiedByRevoke(Long professionalId, Collection<Long> contentIds, Collection<Long> studentIds)
+    {
+        return accessOf(professionalId).emptiedByRevoke(contentIds, new HashSet<>(studentIds));
+    }
+
+    /**
+     * Conteúdos abertos a todos entre os informados (a concessão explícita não se aplica a eles).
+     */
+    public Set<Long> openContentIds(Long professionalId, Collection<Long> contentIds)
+    {
+        return accessOf(professionalId).openAmong(contentIds);
+    }
+
+    // ----------------------------------------------------
+    // 4. ATUALIZAÇÕES (chamadas após o commit)
+    // ----------------------------------------------------
+
+    /**
+     * Substitui a lista de acesso de um conteúdo (criação ou edição).
+     */
+    public void put(Long contentId, Long professionalId, Set<Long> accessStudentIds)
+    {
+        invalidationEpoch.incrementAndGet();
+        ownerByContent.put(contentId, professionalId);
+
+        ProfessionalAccess access = byProfessional.get(professionalId);
+        if (access != null)
+            access.set(contentId, accessStudentIds == null ? Set.of() : accessStudentIds);
+    }
+
+    public void grant(Long professionalId, Collection<Long> contentIds, Collection<Long> studentIds)
+    {
+        invalidationEpoch.incrementAndGet();
+
+        ProfessionalAccess access = byProfessional.get(professionalId);
+        if (access != null)
+            access.grant(contentIds, studentIds);
+    }
+
+    public void revoke(Long professionalId, Collection<Long> contentIds, Collection<Long> studentIds)
+    {
+        invalidationEpoch.incrementAndGet();
+
+        ProfessionalAccess access = byProfessional.get(professionalId);
+        if (access != null)
+            access.revoke(contentIds, studentIds);
+    }
+
+    public void remove(Long contentId)
+    {
+        invalidationEpoch.incrementAndGet();
+
+        Long professionalId = ownerByContent.remove(contentId);
+        if (professionalId == null)
+            return;
+
+        ProfessionalAccess access = byProfessional.get(professionalId);
+        if (access != null)
+            access.remove(contentId);
+    }
+
+    public CacheStatsDTO getStats()
+    {
+        long weight = 0;
+        for (ProfessionalAccess access : byProfessional.values())
+            weight += access.estimateWeight();
+
+        return CacheStatsDTO.builder()
+            .name(NAME)
+            .size(byProfessional.size())
+            .weight(weight)
+            .hits(hits.get())
+            .misses(misses.get())
+            .evictions(0)
+            .build();
+    }
+
+    // ----------------------------------------------------
+    // 5. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private ProfessionalAccess accessOf(Long professionalId)
+    {
+        ProfessionalAccess access = byProfessional.get(professionalId);
+        if (access != null)
+        {
+            hits.incrementAndGet();
+            return access;
+        }
+
+        misses.incrementAndGet();
+        long epochAtLoad = invalidationEpoch.get();
+
+        ProfessionalAccess loaded = new ProfessionalAccess();
+        for (AccessGrantView row : contentProjectionRepository.findAccessGrantsByCreatorId(professionalId))
+        {
+            loaded.addRow(row.getContentId(), row.getStudentId());
+            ownerByContent.putIfAbsent(row.getContentId(), professionalId);
+        }
+
+        // Uma alteração concorrente pode ter ocorrido durante a leitura: usa o resultado sem guardá-lo
+        if (epochAtLoad != invalidationEpoch.get())
+            return loaded;
+
+        ProfessionalAccess existing = byProfessional.putIfAbsent(professionalId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Bitmaps de acesso dos conteúdos de um Profissional.
+     */
+    private static final class ProfessionalAccess
+    {
+        private final Map<Long, Integer> ordinalByContent = new HashMap<>();
+        private long[] contentByOrdinal = new long[16];
+        private int nextOrdinal;
+
+        private final BitSet live = new BitSet();
+        private final BitSet openToAll = new BitSet();
+        private final Map<Long, BitSet> grantsByStudent = new HashMap<>();
+        private final Map<Integer, Set<Long>> studentsByOrdinal = new HashMap<>();
+
+        synchronized void addRow(Long contentId, Long studentId)
+        {
+            int ordinal = ordinalOf(contentId);
+            live.set(ordinal);
+
+            if (studentId == null)
+                openToAll.set(ordinal);
+            else
+                grantInternal(ordinal, studentId);
+        }
+
+        synchronized boolean canAccess(Long studentUserId, Long contentId)
+        {
+            Integer ordinal = ordinalByContent.get(contentId);
+            if (ordinal == null || !live.get(ordinal))
+                return false;
+
+            if (openToAll.get(ordinal))
+                return true;
+
+            BitSet grants = grantsByStudent.get(studentUserId);
+            return grants != null && grants.get(ordinal);
+        }
+
+        synchronized void collectVisible(Long studentUserId, Set<Long> target)
+        {
+            BitSet visible = (BitSet) openToAll.clone();
+
+            BitSet grants = grantsByStudent.get(studentUserId);
+            if (grants != null)
+                visible.or(grants);
+
+            visible.and(live);
+
+            for (int ordinal = visible.nextSetBit(0); ordinal >= 0; ordinal = visible.nextSetBit(ordinal + 1))
+                target.add(contentByOrdinal[ordinal]);
+        }
+
+        synchronized Set<Long> emptiedByRevoke(Collection<Long> contentIds, Set<Long> studentIds)
+        {
+            Set<Long> emptied = new HashSet<>();
+
+            for (Long contentId : contentIds)
+            {
+                Integer ordinal = ordinalByContent.get(contentId);
+                if (ordinal == null || !live.get(ordinal) || openToAll.get(ordinal))
+                    continue;
+
+                if (studentIds.containsAll(studentsByOrdinal.getOrDefault(ordinal, Set.of())))
+                    emptied.add(contentId);
+            }
+
+            return emptied;
+        }
+
+        synchronized Set<Long> openAmong(Collection<Long> contentIds)
+        {
+            Set<Long> open = new HashSet<>();
+
+            for (Long contentId : contentIds)
+            {
+                Integer ordinal = ordinalByContent.get(contentId);
+                if (ordinal != null && live.get(ordinal) && openToAll.get(ordinal))
+                    open.add(contentId);
+            }
+
+            return open;
+        }
+
+        synchronized void set(Long contentId, Set<Long> studentIds)
+        {
+            int ordinal = ordinalOf(contentId);
+            clearGrants(ordinal);
+            live.set(ordinal);
+            openToAll.set(ordinal, studentIds.isEmpty());
+
+            for (Long studentId : studentIds)
+                grantInternal(ordinal, studentId);
+        }
+
+        synchronized void grant(Collection<Long> contentIds, Collection<Long> studentIds)
+        {
+            for (Long contentId : contentIds)
+            {
+                Integer ordinal = ordinalByContent.get(contentId);
+                if (ordinal == null || openToAll.get(ordinal))
+                    continue;
+
+                for (Long studentId : studentIds)
+                    grantInternal(ordinal, studentId);
+            }
+        }
+
+        synchronized void revoke(Collection<Long> contentIds, Collection<Long> studentIds)
+        {
+            for (Long contentId : contentIds)
+            {
+                Integer ordinal = ordinalByContent.get(contentId);
+                if (ordinal == null)
+                    continue;
+
+                Set<Long> students = studentsByOrdinal.get(ordinal);
+                for (Long studentId : studentIds)
+                {
+                    BitSet grants = grantsByStudent.get(studentId);
+                    if (grants != null)
+                        grants.clear(ordinal);
+                    if (students != null)
+                        students.remove(studentId);
+                }
+
+                if (live.get(ordinal) && (students == null || students.isEmpty()))
+                    openToAll.set(ordinal);
+            }
+        }
+
+        synchronized void remove(Long contentId)
+        {
+            Integer ordinal = ordinalByContent.get(contentId);
+            if (ordinal == null)
+                return;
+
+            clearGrants(ordinal);
+            live.clear(ordinal);
+            openToAll.clear(ordinal);
+        }
+
+        synchronized long estimateWeight()
+        {
+            long weight = 64L * ordinalByContent.size() + 8L * contentByOrdinal.length + live.size() / 8 + openToAll.size() / 8;
+            for (BitSet grants : grantsByStudent.values())
+                weight += 48 + grants.size() / 8;
+
+            return weight;
+        }
+
+        private int ordinalOf(Long contentId)
+        {
+            Integer ordinal = ordinalByContent.get(contentId);
+            if (ordinal != null)
+                return ordinal;
+
+            if (nextOrdinal == contentByOrdinal.length)
+                contentByOrdinal = Arrays.copyOf(contentByOrdinal, contentByOrdinal.length * 2);
+
+            contentByOrdinal[nextOrdinal] = contentId;
+            ordinalByContent.put(contentId, nextOrdinal);
+            return nextOrdinal++;
+        }
+
+        private void grantInternal(int ordinal, Long studentId)
+        {
+            grantsByStudent.computeIfAbsent(studentId, id -> new BitSet()).set(ordinal);
+            studentsByOrdinal.computeIfAbsent(ordinal, o -> new HashSet<>()).add(studentId);
+        }
+
+        private void clearGrants(int ordinal)
+        {
+            Set<Long> students = studentsByOrdinal.remove(ordinal);
+            if (students == null)
+                return;
+
+            for (Long studentId : new ArrayList<>(students))
+            {
+                BitSet grants = grantsByStudent.get(studentId);
+                if (grants == null)
+                    continue;
+
+                grants.clear(ordinal);
+                if (grants.isEmpty())
+                    grantsByStudent.remove(studentId);
+            }
+        }
+    }
+}
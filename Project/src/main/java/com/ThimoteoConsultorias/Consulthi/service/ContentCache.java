@@ -0,0 +1,300 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.CacheStatsDTO;
+import com.ThimoteoConsultorias.Consulthi.model.Content;
+import com.ThimoteoConsultorias.Consulthi.model.Diet;
+import com.ThimoteoConsultorias.Consulthi.model.Material;
+import com.ThimoteoConsultorias.Consulthi.model.Professional;
+import com.ThimoteoConsultorias.Consulthi.model.Routine;
+import com.ThimoteoConsultorias.Consulthi.model.Training;
+import com.ThimoteoConsultorias.Consulthi.model.User;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.ContentBlock;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória (LRU + TTL, limitado por peso estimado) de snapshots imutáveis de Content.
+ * Os snapshots são cópias desacopladas do contexto de persistência, com coleções não modificáveis.
+ */
+@Component
+public class ContentCache
+{
+    // ----------------------------------------------------
+    // 1. ESTADO
+    // ----------------------------------------------------
+    private static final String NAME = "content";
+
+    private final long maxWeight;
+    private final long timeToLiveMillis;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentWeight;
+    private long invalidationEpoch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Entry(Content snapshot, long weight, long expiresAt) {}
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public ContentCache
+    (
+        @Value("${consulthi.cache.content.max-weight:67108864}") long maxWeight,
+        @Value("${consulthi.cache.content.time-to-live:PT30M}") Duration timeToLive
+    )
+    {
+        this.maxWeight = maxWeight;
+        this.timeToLiveMillis = timeToLive.toMillis();
+    }
+
+    // ----------------------------------------------------
+    // 3. OPERAÇÕES
+    // ----------------------------------------------------
+
+    /**
+     * Retorna o snapshot do conteúdo, carregando-o pelo loader em caso de ausência ou expiração.
+     */
+    public Content get(Long id, Supplier<Content> loader)
+    {
+        long epochAtLoad;
+
+        synchronized (this)
+        {
+            Entry entry = entries.get(id);
+
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis())
+            {
+                hits++;
+                return entry.snapshot();
+            }
+
+            if (entry != null)
+                remove(id, true);
+
+            misses++;
+            epochAtLoad = invalidationEpoch;
+        }
+
+        Content snapshot = snapshotOf(loader.get());
+        long weight = estimateWeight(snapshot);
+
+        synchronized (this)
+        {
+            // Uma invalidação durante a carga torna o snapshot potencialmente obsoleto
+            if (epochAtLoad == invalidationEpoch && weight <= maxWeight)
+            {
+                remove(id, false);
+                entries.put(id, new Entry(snapshot, weight, System.currentTimeMillis() + timeToLiveMillis));
+                currentWeight += weight;
+                evictToCapacity();
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Remove o conteúdo do cache. Deve ser chamado após o commit de alterações.
+     */
+    public synchronized void evict(Long id)
+    {
+        invalidationEpoch++;
+        remove(id, false);
+    }
+
+    public synchronized CacheStatsDTO getStats()
+    {
+        return CacheStatsDTO.builder()
+            .name(NAME)
+            .size(entries.size())
+            .weight(currentWeight)
+            .hits(hits)
+            .misses(misses)
+            .evictions(evictions)
+            .build();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private void remove(Long id, boolean countAsEviction)
+    {
+        Entry removed = entries.remove(id);
+        if (removed == null)
+            return;
+
+        currentWeight -= removed.weight();
+        if (countAsEviction)
+            evictions++;
+    }
+
+    private void evictToCapacity()
+    {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+
+        while (currentWeight > maxWeight && iterator.hasNext())
+        {
+            currentWeight -= iterator.next().getValue().weight();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Estimativa grosseira (em bytes) do espaço ocupado pelo snapshot.
+     */
+    private long estimateWeight(Content content)
+    {
+        long weight = 256 + length(content.getName()) + length(content.getDescription())
+            + 16L * content.getAccessStudentIds().size();
+
+        if (content instanceof Diet diet)
+            weight += length(diet.getMealsEspecifications());
+
+        else if (content instanceof Material material)
+        {
+            weight += 16L * material.getTags().size();
+            for (ContentBlock block : material.getContentBlocks())
+                weight += 48 + length(block.getValue());
+        }
+
+        else if (content instanceof Routine routine)
+        {
+            weight += 16L * routine.getGoals().size();
+            for (Training training : routine.getTrainings())
+                weight += 128 + length(training.getName()) + 64L * training.getTrainingSets().size();
+        }
+
+        return weight;
+    }
+
+    private long length(String value)
+    {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    /**
+     * Copia o grafo já inicializado para objetos fora do contexto de persistência.
+     */
+    private Content snapshotOf(Content content)
+    {
+        Professional creator = copyOf(content.getCreator());
+        Set<Long> accessStudentIds = immutableSet(content.getAccessStudentIds());
+
+        if (content instanceof Diet diet)
+            return Diet.builder()
+                .id(diet.getId())
+                .contentType(diet.getContentType())
+                .name(diet.getName())
+                .description(diet.getDescription())
+                .creationDate(diet.getCreationDate())
+                .lastModificationDate(diet.getLastModificationDate())
+                .creator(creator)
+                .accessStudentIds(accessStudentIds)
+                .mealsEspecifications(diet.getMealsEspecifications())
+                .build();
+
+        if (content instanceof Material material)
+            return Material.builder()
+                .id(material.getId())
+                .contentType(material.getContentType())
+                .name(material.getName())
+                .description(material.getDescription())
+                .creationDate(material.getCreationDate())
+                .lastModificationDate(material.getLastModificationDate())
+                .creator(creator)
+                .accessStudentIds(accessStudentIds)
+                .tags(immutableSet(material.getTags()))
+                .contentBlocks(immutableList(immutableList(material.getContentBlocks()).stream()
+                    .map(block -> ContentBlock.builder()
+                        .blockOrder(block.getBlockOrder())
+                        .type(block.getType())
+                        .value(block.getValue())
+                        .build())
+                    .toList()))
+                .build();
+
+        if (content instanceof Routine routine)
+            return Routine.builder()
+                .id(routine.getId())
+                .contentType(routine.getContentType())
+                .name(routine.getName())
+                .description(routine.getDescription())
+                .creationDate(routine.getCreationDate())
+                .lastModificationDate(routine.getLastModificationDate())
+                .creator(creator)
+                .accessStudentIds(accessStudentIds)
+                .routineLevel(routine.getRoutineLevel())
+                .goals(immutableSet(routine.getGoals()))
+                .trainings(immutableList(immutableList(routine.getTrainings()).stream()
+                    .map(this::copyOf)
+                    .toList()))
+                .build();
+
+        throw new IllegalArgumentException("Tipo de Content desconhecido: " + content.getClass().getName());
+    }
+
+    private Professional copyOf(Professional professional)
+    {
+        if (professional == null)
+            return null;
+
+        User user = professional.getUser();
+
+        return Professional.builder()
+            .id(professional.getId())
+            .register(professional.getRegister())
+            .user(user == null ? null : User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .fullName(user.getFullName())
+                .build())
+            .build();
+    }
+
+    private Training copyOf(Training training)
+    {
+        return Training.builder()
+            .id(training.getId())
+            .name(training.getName())
+            .targetMuscleGroups(immutableSet(training.getTargetMuscleGroups()))
+            .trainingSets(immutableList(immutableList(training.getTrainingSets()).stream()
+                .map(set -> TrainingSet.builder()
+                    .exerciseOrder(set.getExerciseOrder())
+                    .exerciseId(set.getExerciseId())
+                    .repetitions(set.getRepetitions())
+                    .restTimeSeconds(set.getRestTimeSeconds())
+                    .sets(set.getSets())
+                    .technique(set.getTechnique())
+                    .loadInKg(set.getLoadInKg())
+                    .durationSeconds(set.getDurationSeconds())
+                    .build())
+                .toList()))
+            .build();
+    }
+
+    private <T> Set<T> immutableSet(Collection<T> values)
+    {
+        return values == null ? Set.of() : Set.copyOf(values);
+    }
+
+    private <T> List<T> immutableList(Collection<T> values)
+    {
+        return values == null ? List.of() : List.copyOf(values);
+    }
+}
@@ -0,0 +1,563 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.ContentSearchHitDTO;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentBlockType;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+import com.ThimoteoConsultorias.Consulthi.model.Content;
+import com.ThimoteoConsultorias.Consulthi.model.Diet;
+import com.ThimoteoConsultorias.Consulthi.model.Material;
+import com.ThimoteoConsultorias.Consulthi.model.Routine;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.ContentBlock;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Índice invertido em memória para busca textual de conteúdos (nome, descrição,
+ * refeições da Dieta e blocos TEXT do Material), com ranking BM25.
+ * É atualizado incrementalmente pelo ContentService após o commit e persistido em disco
+ * (snapshot + watermark de lastModificationDate), de modo que a inicialização só relê do banco
+ * o que mudou desde o último snapshot.
+ */
+@Component
+public class ContentSearchIndex
+{
+    // ----------------------------------------------------
+    // 1. ESTADO
+    // ----------------------------------------------------
+    private static final String SNAPSHOT_FILE = "content-index.bin";
+    private static final int SNAPSHOT_MAGIC = 0x43534958;
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 3;
+    private static final int CATCH_UP_PAGE_SIZE = 200;
+    private static final LocalDateTime FULL_REBUILD_SINCE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ContentRepository contentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long totalLength;
+    private LocalDateTime watermark;
+
+    // Remoções ocorridas durante a carga inicial, para que a releitura do banco não as ressuscite
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+    private boolean loading = true;
+
+    /**
+     * Documento indexado: metadados para filtro de permissão e frequências de termos.
+     * O acesso granular fica no ContentAccessIndex.
+     */
+    public record IndexedDocument
+    (
+        Long id,
+        Long creatorId,
+        ContentType contentType,
+        String name,
+        LocalDateTime lastModificationDate,
+        Map<String, Integer> termFrequencies,
+        int length
+    ) {}
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public ContentSearchIndex
+    (
+        ContentRepository contentRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${consulthi.search.directory:./data/search-index}") String directory
+    )
+    {
+        this.contentRepository = contentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = Paths.get(directory);
+    }
+
+    // ----------------------------------------------------
+    // 3. OPERAÇÕES
+    // ----------------------------------------------------
+
+    /**
+     * Monta o documento a partir da entidade. Deve ser chamado dentro da transação
+     * (coleções lazy), e o resultado aplicado com put() após o commit.
+     */
+    public IndexedDocument documentOf(Content content)
+    {
+        Map<String, Integer> frequencies = new HashMap<>();
+
+        for (int i = 0; i < NAME_BOOST; i++)
+            addTerms(frequencies, content.getName());
+
+        addTerms(frequencies, content.getDescription());
+
+        if (content instanceof Diet diet)
+            addTerms(frequencies, diet.getMealsEspecifications());
+
+        else if (content instanceof Material material && material.getContentBlocks() != null)
+            for (ContentBlock block : material.getContentBlocks())
+                if (block.getType() == ContentBlockType.TEXT)
+                    addTerms(frequencies, block.getValue());
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        return new IndexedDocument(
+            content.getId(),
+            content.getCreator().getId(),
+            typeOf(content),
+            content.getName(),
+            content.getLastModificationDate(),
+            Map.copyOf(frequencies),
+            length);
+    }
+
+    /**
+     * Insere ou substitui o documento no índice.
+     */
+    public void put(IndexedDocument document)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            removeInternal(document.id());
+            addInternal(document);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long contentId)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            removeInternal(contentId);
+            if (loading)
+                removedWhileLoading.add(contentId);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca ranqueada por BM25, restrita aos documentos aceitos pelo filtro de permissão.
+     * @param query Texto livre; passa pelo mesmo analisador dos documentos.
+     * @param filter Filtro de permissão (autoria ou vínculo + acesso granular).
+     * @param limit Número máximo de resultados.
+     */
+    public List<ContentSearchHitDTO> search(String query, Predicate<IndexedDocument> filter, int limit)
+    {
+        Set<String> terms = new LinkedHashSet<>(PortugueseAnalyzer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0)
+            return List.of();
+
+        lock.readLock().lock();
+        try
+        {
+            int documentCount = documents.size();
+            if (documentCount == 0)
+                return List.of();
+
+            double averageLength = (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            Map<Long, Boolean> allowed = new HashMap<>();
+
+            for (String term : terms)
+            {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null)
+                    continue;
+
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+
+                for (Map.Entry<Long, Integer> entry : posting.entrySet())
+                {
+                    IndexedDocument document = documents.get(entry.getKey());
+
+                    if (!allowed.computeIfAbsent(document.id(), id -> filter.test(document)))
+                        continue;
+
+                    int tf = entry.getValue();
+                    double norm = K1 * (1 - B + B * document.length() / averageLength);
+                    scores.merge(document.id(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet())
+            {
+                top.offer(entry);
+                if (top.size() > limit)
+                    top.poll();
+            }
+
+            List<ContentSearchHitDTO> hits = new ArrayList<>(top.size());
+            for (Map.Entry<Long, Double> entry : top)
+            {
+                IndexedDocument document = documents.get(entry.getKey());
+                hits.add(ContentSearchHitDTO.builder()
+                    .id(document.id())
+                    .name(document.name())
+                    .contentType(document.contentType())
+                    .lastModificationDate(document.lastModificationDate())
+                    .score(entry.getValue())
+                    .build());
+            }
+
+            hits.sort(Comparator.comparingDouble(ContentSearchHitDTO::getScore).reversed());
+            return hits;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ----------------------------------------------------
+    // 4. CICLO DE VIDA (SNAPSHOT EM DISCO)
+    // ----------------------------------------------------
+
+    /**
+     * Carrega o snapshot do disco e relê do banco apenas o que mudou após o watermark.
+     * Sem snapshot válido, reconstrói o índice inteiro em páginas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize()
+    {
+        boolean restored = loadSnapshot();
+        LocalDateTime since = restored && watermark != null ? watermark : FULL_REBUILD_SINCE;
+
+        if (restored)
+            removeDeletedSinceSnapshot();
+
+        int reindexed = catchUp(since);
+
+        lock.writeLock().lock();
+        try
+        {
+            loading = false;
+            removedWhileLoading.clear();
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+
+        System.out.println("[SEARCH] Índice de conteúdos pronto: " + documents.size() + " documentos ("
+            + (restored ? "snapshot + " + reindexed + " atualizados" : "reconstruído do banco") + ").");
+
+        persistSnapshot();
+    }
+
+    @PreDestroy
+    public void persistSnapshot()
+    {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+
+        lock.readLock().lock();
+        try
+        {
+            Files.createDirectories(directory);
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary)))))
+            {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                writeDateTime(out, watermark);
+                out.writeInt(documents.size());
+
+                for (IndexedDocument document : documents.values())
+                {
+                    out.writeLong(document.id());
+                    out.writeLong(document.creatorId());
+                    out.writeByte(document.contentType().ordinal());
+                    writeString(out, document.name());
+                    writeDateTime(out, document.lastModificationDate());
+
+                    out.writeInt(document.termFrequencies().size());
+                    for (Map.Entry<String, Integer> entry : document.termFrequencies().entrySet())
+                    {
+                        writeString(out, entry.getKey());
+                        out.writeInt(entry.getValue());
+                    }
+                }
+            }
+
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            System.err.println("[SEARCH] Falha ao gravar snapshot do índice: " + e.getMessage());
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean loadSnapshot()
+    {
+        Path source = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(source))
+            return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(source)))))
+        {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+                return false;
+
+            LocalDateTime snapshotWatermark = readDateTime(in);
+            int documentCount = in.readInt();
+            ContentType[] types = ContentType.values();
+            List<IndexedDocument> restored = new ArrayList<>(documentCount);
+
+            for (int i = 0; i < documentCount; i++)
+            {
+                Long id = in.readLong();
+                Long creatorId = in.readLong();
+                ContentType contentType = types[in.readByte()];
+                String name = readString(in);
+                LocalDateTime lastModificationDate = readDateTime(in);
+
+                int termCount = in.readInt();
+                Map<String, Integer> frequencies = new HashMap<>(termCount * 2);
+                int length = 0;
+                for (int j = 0; j < termCount; j++)
+                {
+                    String term = readString(in);
+                    int tf = in.readInt();
+                    frequencies.put(term, tf);
+                    length += tf;
+                }
+
+                restored.add(new IndexedDocument(id, creatorId, contentType, name, lastModificationDate,
+                    Map.copyOf(frequencies), length));
+            }
+
+            lock.writeLock().lock();
+            try
+            {
+                for (IndexedDocument document : restored)
+                    if (!removedWhileLoading.contains(document.id()) && !documents.containsKey(document.id()))
+                        addInternal(document);
+
+                if (snapshotWatermark != null && (watermark == null || snapshotWatermark.isBefore(watermark)))
+                    watermark = snapshotWatermark;
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+
+            return true;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            System.err.println("[SEARCH] Snapshot do índice inválido, reconstruindo: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Remove do índice os conteúdos apagados enquanto a aplicação estava parada.
+     */
+    private void removeDeletedSinceSnapshot()
+    {
+        Set<Long> existingIds = new HashSet<>(transactionTemplate.execute(status -> contentRepository.findAllIds()));
+
+        lock.writeLock().lock();
+        try
+        {
+            for (Long id : new ArrayList<>(documents.keySet()))
+                if (!existingIds.contains(id))
+                    removeInternal(id);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reindexa, em páginas por ID, os conteúdos modificados a partir de 'since'.
+     */
+    private int catchUp(LocalDateTime since)
+    {
+        int reindexed = 0;
+        Long afterId = 0L;
+
+        while (true)
+        {
+            final Long cursor = afterId;
+            List<IndexedDocument> page = transactionTemplate.execute(status ->
+                contentRepository.findModifiedSince(since, cursor, Limit.of(CATCH_UP_PAGE_SIZE)).stream()
+                    .map(this::documentOf)
+                    .toList());
+
+            if (page == null || page.isEmpty())
+                return reindexed;
+
+            lock.writeLock().lock();
+            try
+            {
+                for (IndexedDocument document : page)
+                {
+                    if (removedWhileLoading.contains(document.id()))
+                        continue;
+
+                    // Não sobrescreve uma versão mais nova aplicada após um commit concorrente
+                    IndexedDocument current = documents.get(document.id());
+                    if (current != null && current.lastModificationDate() != null && document.lastModificationDate() != null
+                        && current.lastModificationDate().isAfter(document.lastModificationDate()))
+                        continue;
+
+                    removeInternal(document.id());
+                    addInternal(document);
+                    reindexed++;
+                }
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    // ----------------------------------------------------
+    // 5. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private void addInternal(IndexedDocument document)
+    {
+        documents.put(document.id(), document);
+        totalLength += document.length();
+
+        for (Map.Entry<String, Integer> entry : document.termFrequencies().entrySet())
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(document.id(), entry.getValue());
+
+        if (document.lastModificationDate() != null && (watermark == null || document.lastModificationDate().isAfter(watermark)))
+            watermark = document.lastModificationDate();
+    }
+
+    private void removeInternal(Long contentId)
+    {
+        IndexedDocument removed = documents.remove(contentId);
+        if (removed == null)
+            return;
+
+        totalLength -= removed.length();
+
+        for (String term : removed.termFrequencies().keySet())
+        {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null)
+                continue;
+
+            posting.remove(contentId);
+            if (posting.isEmpty())
+                postings.remove(term);
+        }
+    }
+
+    private void addTerms(Map<String, Integer> frequencies, String text)
+    {
+        for (String term : PortugueseAnalyzer.tokenize(text))
+            frequencies.merge(term, 1, Integer::sum);
+    }
+
+    private ContentType typeOf(Content content)
+    {
+        if (content instanceof Diet) return ContentType.DIET;
+        if (content instanceof Material) return ContentType.MATERIAL;
+        if (content instanceof Routine) return ContentType.ROUTINE;
+
+        throw new IllegalArgumentException("Tipo de Content desconhecido: " + content.getClass().getName());
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0)
+            return null;
+
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException
+    {
+        out.writeBoolean(value != null);
+        if (value != null)
+        {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private LocalDateTime readDateTime(DataInputStream in) throws IOException
+    {
+        if (!in.readBoolean())
+            return null;
+
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -1,7 +1,15 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
+import com.ThimoteoConsultorias.Consulthi.config.AfterCommitExecutor;
 import com.ThimoteoConsultorias.Consulthi.dto.ContentDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentFeedItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentPageDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentSearchHitDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ContentSummaryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSetDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.Content;
 import com.ThimoteoConsultorias.Consulthi.model.Diet;
@@ -9,29 +17,52 @@ import com.ThimoteoConsultorias.Consulthi.model.Material;
 import com.ThimoteoConsultorias.Consulthi.model.Professional;
 import com.ThimoteoConsultorias.Consulthi.model.Routine;
 import com.ThimoteoConsultorias.Consulthi.model.Training;
-import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository.ContentHeaderView;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository.TrainingMuscleGroupView;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository.TrainingSetView;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository.TrainingView;
 import com.ThimoteoConsultorias.Consulthi.repository.ContentRepository;
 
-import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ContentService
 {
+    // Paginação da listagem de conteúdos (RF07)
+    public static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final LocalDateTime FIRST_PAGE_CURSOR_DATE = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final int SEARCH_RESULT_LIMIT = 20;
+
     // ----------------------------------------------------
     // 1. DEPENDÊNCIAS
     // ----------------------------------------------------
     private final ContentRepository contentRepository;
+    private final ContentProjectionRepository contentProjectionRepository;
     private final ProfessionalService professionalService;
     private final StudentProfessionalLinkService linkService;
     private final TrainingService trainingService; // Necessário para mapeamento de Training DTO
+    private final ContentCache contentCache;
+    private final ContentSearchIndex contentSearchIndex;
+    private final ContentAccessIndex contentAccessIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final AfterCommitExecutor afterCommitExecutor;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
@@ -39,15 +70,27 @@ public class ContentService
     public ContentService
     (
         ContentRepository contentRepository,
+        ContentProjectionRepository contentProjectionRepository,
         ProfessionalService professionalService,
         StudentProfessionalLinkService linkService,
-        TrainingService trainingService
+        TrainingService trainingService,
+        ContentCache contentCache,
+        ContentSearchIndex contentSearchIndex,
+        ContentAccessIndex contentAccessIndex,
+        JdbcTemplate jdbcTemplate,
+        AfterCommitExecutor afterCommitExecutor
     )
     {
         this.contentRepository = contentRepository;
+        this.contentProjectionRepository = contentProjectionRepository;
         this.professionalService = professionalService;
         this.linkService = linkService;
         this.trainingService = trainingService;
+        this.contentCache = contentCache;
+        this.contentSearchIndex = contentSearchIndex;
+        this.contentAccessIndex = contentAccessIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.afterCommitExecutor = afterCommitExecutor;
     }
 
     // ----------------------------------------------------
@@ -73,7 +116,17 @@ public class ContentService
         content.setCreationDate(now);
         content.setLastModificationDate(now);
         
-        return contentRepository.save(content);
+        Content saved = contentRepository.save(content);
+
+        ContentSearchIndex.IndexedDocument document = contentSearchIndex.documentOf(saved);
+        Set<Long> accessStudentIds = copyOfAccess(saved);
+        afterCommitExecutor.execute(() ->
+        {
+            contentSearchIndex.put(document);
+            contentAccessIndex.put(saved.getId(), creator.getId(), accessStudentIds);
+        });
+
+        return saved;
     }
 
     /*
@@ -81,46 +134,48 @@ public class ContentService
      */
 
     /**
-     * Retorna o conteúdo pelo ID.
+     * Retorna o conteúdo pelo ID, a partir do cache de snapshots (somente leitura).
      * @throws ResourceNotFoundException se o Content não for encontrado.
      */
     @Transactional(readOnly = true)
     public Content getContentById(Long id) throws ResourceNotFoundException
     {
-        Content content = contentRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Conteúdo de id '" + id +"' não encontrado."));
+        return contentCache.get(id, () -> loadContentGraph(id));
+    }
 
-        if (content.getCreator() != null && content.getCreator().getUser() != null)
-            content.getCreator().getUser().getFullName();
+    /**
+     * Carrega o Content do banco com todo o grafo inicializado, usando o plano de busca do subtipo.
+     * A Rotina é carregada em passadas fixas (rotina, séries, grupos musculares), independente do número de treinos.
+     */
+    private Content loadContentGraph(Long id) throws ResourceNotFoundException
+    {
+        ContentType contentType = contentRepository.findContentTypeById(id)
+            .orElseThrow(() -> contentNotFound(id));
 
-        if (content instanceof Routine)
+        switch (contentType)
         {
-            Routine routine = (Routine) content;
+            case DIET:
+                return contentRepository.findDietDetailById(id)
+                    .orElseThrow(() -> contentNotFound(id));
 
-            Hibernate.initialize(routine.getGoals());
+            case MATERIAL:
+                return contentRepository.findMaterialDetailById(id)
+                    .orElseThrow(() -> contentNotFound(id));
 
-            for (Training training : routine.getTrainings())
-            {
-                Hibernate.initialize(training.getTargetMuscleGroups());
-                Hibernate.initialize(training.getTrainingSets());
+            case ROUTINE:
+                Routine routine = contentRepository.findRoutineDetailById(id)
+                    .orElseThrow(() -> contentNotFound(id));
 
-                for(TrainingSet set : training.getTrainingSets())
-                    Hibernate.initialize(set);
-            }
-        }
-        else if (content instanceof Diet)
-        {
-            Diet diet = (Diet) content;
-            Hibernate.initialize(diet.getMealsEspecifications());
-        }
-        else if (content instanceof Material)
-        {
-            Material material = (Material) content;
-            Hibernate.initialize(material.getTags());
-            Hibernate.initialize(material.getContentBlocks());
-        }
+                if (!routine.getTrainings().isEmpty())
+                {
+                    contentRepository.fetchTrainingSetsByRoutineId(id);
+                    contentRepository.fetchTrainingMuscleGroupsByRoutineId(id);
+                }
+                return routine;
 
-        return content;
+            default:
+                throw new IllegalArgumentException("Tipo de Content desconhecido: " + contentType);
+        }
     }
 
     /**
@@ -145,73 +200,119 @@ public class ContentService
      */
     public List<Content> listAllContentByCreator(Professional creator, ContentType contentType)
     {
-        if (contentType != null && contentType != ContentType.ALL)
-        {
-            switch(contentType)
-            {
-                case DIET:
-                    return contentRepository.findDietsByCreatorId(creator.getId()).stream()
-                        .map(diet -> (Content) diet)
-                        .collect(Collectors.toList());
-                case MATERIAL:
-                    return contentRepository.findMaterialsByCreatorId(creator.getId()).stream()
-                        .map(material -> (Content) material)
-                        .collect(Collectors.toList());
-                case ROUTINE:
-                    return contentRepository.findRoutinesByCreatorId(creator.getId()).stream()
-                        .map(routine -> (Content) routine)
-                        .collect(Collectors.toList());
-                default:
-                    return contentRepository.findByCreatorId(creator.getUser().getId());
-            }
-        }
-        return contentRepository.findByCreatorId(creator.getUser().getId());
+        return contentRepository.findByCreatorIdAndContentTypeInOrderByLastModificationDateDescIdDesc(creator.getId(), typesFor(contentType));
     }
 
     /**
-     * Verifica e retorna o conteúdo que um Aluno PODE acessar (RF06).
-     * @throws SecurityException se o vínculo ou acesso granular for negado.
+     * Página da listagem de conteúdos do Profissional (RF07), paginada por chave em (lastModificationDate, id).
+     * @param contentType Filtro de tipo (null ou ALL para todos).
+     * @param namePrefix Prefixo do nome, sem diferenciar maiúsculas (opcional).
+     * @param cursorDate Data do último item da página anterior (null para a primeira página).
+     * @param cursorId ID do último item da página anterior (null para a primeira página).
      */
     @Transactional(readOnly = true)
-    public Content getContentForStudent(Long contentId, Long studentUserId)
-    throws SecurityException
+    public ContentPageDTO listContentPageByCreator(Long creatorId, ContentType contentType, String namePrefix,
+                                                   LocalDateTime cursorDate, Long cursorId, int pageSize)
     {
-        Content content = getContentById(contentId);
-        
-        if (content.getCreator().getUser().getId().equals(studentUserId))
-            return content;
-            
-        Professional creator = content.getCreator();
-        
-        boolean hasActiveLink = linkService.isActiveLink(studentUserId, creator.getId());
-        if (!hasActiveLink)
-            throw new SecurityException("Acesso negado: Não há vínculo ativo com o profissional criador.");
-        
-        boolean hasGranularAccess = content.getAccessStudentIds().isEmpty() || content.getAccessStudentIds().contains(studentUserId);
-        if (!hasGranularAccess)
-            throw new SecurityException("Acesso negado: Conteúdo não liberado para você.");
-        
-        return content;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+
+        // Sentinelas da primeira página: todo item fica "antes" do cursor
+        boolean firstPage = cursorDate == null || cursorId == null;
+
+        List<ContentSummaryDTO> rows = contentRepository.findPageByCreator(
+            creatorId,
+            typesFor(contentType),
+            toLikePrefix(namePrefix),
+            firstPage ? FIRST_PAGE_CURSOR_DATE : cursorDate,
+            firstPage ? Long.MAX_VALUE : cursorId,
+            Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ContentSummaryDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        ContentSummaryDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return ContentPageDTO.builder()
+            .items(items)
+            .hasMore(hasMore)
+            .nextCursorDate(hasMore ? last.getLastModificationDate() : null)
+            .nextCursorId(hasMore ? last.getId() : null)
+            .build();
     }
-    
+
     /**
-     * Verifica se o usuário tem permissão para visualizar o conteúdo (Criador ou Aluno com Link Ativo).
+     * Busca textual nos conteúdos de autoria do Profissional.
      */
-    public boolean isUserAuthorizedToView(Content content, Long userId)
+    public List<ContentSearchHitDTO> searchContentForProfessional(Long professionalUserId, String query)
     {
-        Long creatorId = content.getCreator().getUser().getId();
-        
-        if (creatorId.equals(userId))
-            return true;
-            
-        try {
-            getContentForStudent(content.getId(), userId);
-            return true;
-        } catch (SecurityException | ResourceNotFoundException e) {
-            return false;
-        }
+        return contentSearchIndex.search(query, document -> professionalUserId.equals(document.creatorId()), SEARCH_RESULT_LIMIT);
+    }
+
+    /**
+     * Busca textual nos conteúdos visíveis ao Aluno (RF06): profissionais com vínculo ativo
+     * e acesso granular liberado.
+     */
+    public List<ContentSearchHitDTO> searchContentForStudent(Long studentUserId, String query)
+    {
+        Set<Long> visibleContentIds = listVisibleContentIds(studentUserId);
+        if (visibleContentIds.isEmpty())
+            return List.of();
+
+        return contentSearchIndex.search(query, document -> visibleContentIds.contains(document.id()), SEARCH_RESULT_LIMIT);
+    }
+
+    /**
+     * IDs de todos os conteúdos visíveis ao Aluno: profissionais com vínculo ativo + acesso granular,
+     * resolvidos pelo índice de acesso em memória.
+     */
+    public Set<Long> listVisibleContentIds(Long studentUserId)
+    {
+        long[] activeProfessionalIds = linkService.getActiveProfessionalIds(studentUserId);
+        if (activeProfessionalIds.length == 0)
+            return Set.of();
+
+        return contentAccessIndex.visibleContentIds(studentUserId, Arrays.stream(activeProfessionalIds).boxed().toList());
+    }
+
+    /**
+     * Retorna as Dietas e Materiais visíveis para o Aluno (RF06).
+     * Vínculo ativo e acesso granular são resolvidos no banco, em uma única consulta.
+     */
+    @Transactional(readOnly = true)
+    public List<ContentFeedItemDTO> listContentFeedForStudent(Long studentUserId)
+    {
+        return contentRepository.findFeedForStudent(
+            studentUserId,
+            EnumSet.of(ContentType.DIET, ContentType.MATERIAL),
+            LinkStatus.ACCEPTED
+        );
     }
 
+    /**
+     * Retorna o conteúdo que o usuário PODE acessar (RF06): o autor, ou um Aluno com vínculo ativo
+     * e acesso granular liberado. Autoria, vínculo e acesso são resolvidos em memória (índice de acesso
+     * e cache de vínculos ativos), e o grafo é carregado uma só vez (via cache de snapshots).
+     * @throws ResourceNotFoundException se o Content não for encontrado.
+     * @throws SecurityException se o vínculo ou acesso granular for negado.
+     */
+    @Transactional(readOnly = true)
+    public Content getAuthorizedContent(Long contentId, Long userId)
+    throws ResourceNotFoundException, SecurityException
+    {
+        Long creatorId = contentAccessIndex.ownerOf(contentId)
+            .orElseThrow(() -> contentNotFound(contentId));
+
+        if (!creatorId.equals(userId))
+        {
+            if (!linkService.isActiveLink(userId, creatorId))
+                throw new SecurityException("Acesso negado: Não há vínculo ativo com o profissional criador.");
+
+            if (!contentAccessIndex.canAccess(userId, contentId))
+                throw new SecurityException("Acesso negado: Conteúdo não liberado para você.");
+        }
+
+        return getContentById(contentId);
+    }
 
     /*
      * UPDATE
@@ -219,12 +320,15 @@ public class ContentService
 
     /**
      * Busca o Conteúdo e o converte para DTO, validando a autoria.
+     * Lê projeções diretamente do banco: nenhuma entidade é hidratada no contexto de persistência.
      */
     @Transactional(readOnly = true)
     public ContentDTO getContentAsDTO(Long contentId, Long professionalId)
     {
-        Content content = getContentByCreatorId(contentId, professionalId, null);
-        return toDTO(content);
+        ContentHeaderView header = contentProjectionRepository.findHeaderByIdAndCreatorId(contentId, professionalId)
+            .orElseThrow(() -> new SecurityException("Conteúdo não encontrado ou você não tem permissão de autoria."));
+
+        return toDTO(header);
     }
 
     /**
@@ -242,7 +346,7 @@ public class ContentService
         content.setName(contentDto.getName());
         content.setDescription(contentDto.getDescription());
         
-        content.setAccessStudentIds(contentDto.getAccessStudentIds());
+        content.setAccessStudentIds(replaceElements(content.getAccessStudentIds(), contentDto.getAccessStudentIds()));
         content.setLastModificationDate(LocalDateTime.now());
         
         
@@ -251,25 +355,109 @@ public class ContentService
         
         else if (content instanceof Material material)
         {
-            material.setTags(contentDto.getTags());
+            material.setTags(replaceElements(material.getTags(), contentDto.getTags()));
             material.setContentBlocks(contentDto.getContentBlocks());
         }
         
         else if (content instanceof Routine routine)
         {
             routine.setRoutineLevel(contentDto.getRoutineLevel());
-            routine.setGoals(contentDto.getGoals());
-            
-            List<Training> newTrainings = contentDto.getTrainingDtos().stream()
-                .map(trainingService::createTrainingFromDTO)
-                .collect(Collectors.toList());
-             
-            routine.setTrainings(newTrainings);
+            routine.setGoals(replaceElements(routine.getGoals(), contentDto.getGoals()));
+
+            if (routine.getTrainings() == null)
+                routine.setTrainings(new ArrayList<>());
+
+            // Copy-on-write: treinos mantidos conservam o template; alterados passam a outro template
+            trainingService.mergeTrainings(routine.getTrainings(), contentDto.getTrainingDtos());
         }
 
-        return contentRepository.save(content);
+        Content saved = contentRepository.save(content);
+
+        ContentSearchIndex.IndexedDocument document = contentSearchIndex.documentOf(saved);
+        Set<Long> accessStudentIds = copyOfAccess(saved);
+        afterCommitExecutor.execute(() ->
+        {
+            contentCache.evict(contentId);
+            contentSearchIndex.put(document);
+            contentAccessIndex.put(contentId, professionalId, accessStudentIds);
+        });
+
+        return saved;
     }
     
+    /**
+     * Libera, em lote, os conteúdos informados para os alunos informados.
+     * Valida autoria e vínculo ativo com uma consulta cada e insere as concessões com JDBC batch.
+     * Conteúdos abertos a todos são ignorados: já são visíveis e restringi-los a poucos alunos seria uma mudança de escopo.
+     * @return Número de liberações efetivamente inseridas (as já existentes não contam).
+     */
+    @Transactional
+    public int grantAccess(Long professionalId, Collection<Long> contentIds, Collection<Long> studentIds)
+    throws SecurityException, IllegalArgumentException
+    {
+        List<Long> ownedIds = requireOwnedContent(professionalId, contentIds);
+
+        if (studentIds == null || studentIds.isEmpty())
+            throw new IllegalArgumentException("Selecione ao menos um aluno.");
+
+        List<Long> linkedStudentIds = linkService.getStudentIdsByProfessionalAndStatusIn(professionalId, studentIds, EnumSet.of(LinkStatus.ACCEPTED));
+        if (linkedStudentIds.size() != new HashSet<>(studentIds).size())
+            throw new IllegalArgumentException("Só é possível liberar conteúdo para alunos com vínculo ativo.");
+
+        Set<Long> openIds = contentAccessIndex.openContentIds(professionalId, ownedIds);
+        List<Long> targetIds = ownedIds.stream().filter(id -> !openIds.contains(id)).toList();
+
+        List<Object[]> rows = new ArrayList<>(targetIds.size() * linkedStudentIds.size());
+        for (Long contentId : targetIds)
+            for (Long studentId : linkedStudentIds)
+                rows.add(new Object[] { contentId, studentId, contentId, studentId });
+
+        int inserted = 0;
+        if (!rows.isEmpty())
+            for (int count : jdbcTemplate.batchUpdate(
+                "INSERT INTO content_access_students (content_id, student_id) SELECT ?, ? " +
+                "WHERE NOT EXISTS (SELECT 1 FROM content_access_students WHERE content_id = ? AND student_id = ?)",
+                rows))
+                inserted += Math.max(count, 0);
+
+        afterCommitExecutor.execute(() ->
+        {
+            contentAccessIndex.grant(professionalId, targetIds, linkedStudentIds);
+            targetIds.forEach(contentCache::evict);
+        });
+
+        return inserted;
+    }
+
+    /**
+     * Revoga, em lote, o acesso dos alunos informados aos conteúdos informados.
+     * Recusa a operação se alguma lista ficar vazia, pois lista vazia significa "aberto a todos".
+     */
+    @Transactional
+    public int revokeAccess(Long professionalId, Collection<Long> contentIds, Collection<Long> studentIds)
+    throws SecurityException, IllegalArgumentException
+    {
+        List<Long> ownedIds = requireOwnedContent(professionalId, contentIds);
+
+        if (studentIds == null || studentIds.isEmpty())
+            throw new IllegalArgumentException("Selecione ao menos um aluno.");
+
+        Set<Long> emptiedIds = contentAccessIndex.contentsEmptiedByRevoke(professionalId, ownedIds, studentIds);
+        if (!emptiedIds.isEmpty())
+            throw new IllegalArgumentException("A revogação deixaria os conteúdos " + emptiedIds + " sem alunos, o que os liberaria para todos. Edite-os individualmente.");
+
+        int removed = contentRepository.deleteAccessGrants(ownedIds, studentIds);
+
+        List<Long> studentIdList = List.copyOf(studentIds);
+        afterCommitExecutor.execute(() ->
+        {
+            contentAccessIndex.revoke(professionalId, ownedIds, studentIdList);
+            ownedIds.forEach(contentCache::evict);
+        });
+
+        return removed;
+    }
+
     /*
      * DELETE
      */
@@ -282,8 +470,23 @@ public class ContentService
     {
          Content content = contentRepository.findByIdAndCreatorId(contentId, professionalId)
             .orElseThrow(() -> new SecurityException("Conteúdo não encontrado ou você não tem permissão para deletar."));
-            
+
+        List<Training> trainings = content instanceof Routine routine && routine.getTrainings() != null
+            ? new ArrayList<>(routine.getTrainings())
+            : List.of();
+
         contentRepository.delete(content);
+
+        // Templates de treino são compartilhados: a rotina apenas devolve suas referências
+        if (!trainings.isEmpty())
+            trainingService.releaseTrainings(trainings);
+
+        afterCommitExecutor.execute(() ->
+        {
+            contentCache.evict(contentId);
+            contentSearchIndex.remove(contentId);
+            contentAccessIndex.remove(contentId);
+        });
     }
     
     // ----------------------------------------------------
@@ -317,10 +520,7 @@ public class ContentService
                     .build();
                     
             case ROUTINE:
-                List<Training> savedTrainings = dto.getTrainingDtos() != null ? 
-                    dto.getTrainingDtos().stream()
-                    .map(trainingService::createTrainingFromDTO)
-                    .collect(Collectors.toList()) : List.of();
+                List<Training> savedTrainings = trainingService.createTrainingsFromDTOs(dto.getTrainingDtos());
 
                 return Routine.builder()
                     .name(dto.getName())
@@ -337,6 +537,11 @@ public class ContentService
         }
     }
 
+    private ResourceNotFoundException contentNotFound(Long id)
+    {
+        return new ResourceNotFoundException("Conteúdo de id '" + id +"' não encontrado.");
+    }
+
     /**
      * Identifica e retorna o tipo de conteúdo (Enum) a partir da entidade (Polimorfismo).
      */
@@ -352,48 +557,144 @@ public class ContentService
     }
 
     /**
-     * Mapeia uma classe Content para ContentDTO.
+     * Garante que todos os conteúdos informados pertencem ao Profissional (uma consulta).
      */
-    private ContentDTO toDTO(Content content)
+    private List<Long> requireOwnedContent(Long professionalId, Collection<Long> contentIds)
+    throws SecurityException, IllegalArgumentException
     {
-        ContentType contentType = getContentType(content);
-        
+        if (contentIds == null || contentIds.isEmpty())
+            throw new IllegalArgumentException("Selecione ao menos um conteúdo.");
+
+        List<Long> ownedIds = contentProjectionRepository.findIdsByIdInAndCreatorId(contentIds, professionalId);
+        if (ownedIds.size() != new HashSet<>(contentIds).size())
+            throw new SecurityException("Um ou mais conteúdos não existem ou você não tem permissão de autoria.");
+
+        return ownedIds;
+    }
+
+    private Set<Long> copyOfAccess(Content content)
+    {
+        return content.getAccessStudentIds() == null ? Set.of() : Set.copyOf(content.getAccessStudentIds());
+    }
+
+    /**
+     * Converte o filtro de tipo para o conjunto usado no IN da consulta.
+     */
+    private Set<ContentType> typesFor(ContentType contentType)
+    {
+        if (contentType == null || contentType == ContentType.ALL)
+            return EnumSet.of(ContentType.DIET, ContentType.MATERIAL, ContentType.ROUTINE);
+
+        return EnumSet.of(contentType);
+    }
+
+    /**
+     * Monta o padrão LIKE de prefixo, em minúsculas e com os curingas do usuário escapados.
+     */
+    private String toLikePrefix(String namePrefix)
+    {
+        if (namePrefix == null || namePrefix.isBlank())
+            return "%";
+
+        return namePrefix.trim().toLowerCase(Locale.ROOT)
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_") + "%";
+    }
+
+    /**
+     * Substitui o conteúdo de um Set gerenciado mantendo a mesma instância,
+     * para que o Hibernate grave apenas as diferenças em vez de recriar a coleção.
+     */
+    private <T> Set<T> replaceElements(Set<T> current, Set<T> incoming)
+    {
+        Set<T> target = incoming == null ? Set.of() : incoming;
+
+        if (current == null)
+            return new HashSet<>(target);
+
+        if (!current.equals(target))
+        {
+            current.retainAll(target);
+            current.addAll(target);
+        }
+
+        return current;
+    }
+
+    /**
+     * Monta o ContentDTO a partir das tuplas projetadas, sem entidades gerenciadas.
+     */
+    private ContentDTO toDTO(ContentHeaderView header)
+    {
+        Long contentId = header.getId();
+
         ContentDTO.ContentDTOBuilder builder = ContentDTO.builder()
-            .id(content.getId())
-            .name(content.getName())
-            .description(content.getDescription())
-            .creationDate(content.getCreationDate())
-            .lastModificationDate(content.getLastModificationDate())
-            .contentType(contentType)
-            .accessStudentIds(new HashSet<>(content.getAccessStudentIds()));
-       
-        switch(contentType)
+            .id(contentId)
+            .name(header.getName())
+            .description(header.getDescription())
+            .creationDate(header.getCreationDate())
+            .lastModificationDate(header.getLastModificationDate())
+            .contentType(header.getContentType())
+            .accessStudentIds(new HashSet<>(contentProjectionRepository.findAccessStudentIds(contentId)));
+
+        switch(header.getContentType())
         {
             case DIET:
-                Diet diet = (Diet) content;
-                builder.mealsEspecifications(diet.getMealsEspecifications());
+                builder.mealsEspecifications(header.getMealsEspecifications());
                 break;
 
             case MATERIAL:
-                Material material = (Material) content;
-                builder.tags(new HashSet<>(material.getTags()));
-                builder.contentBlocks(new ArrayList<>(material.getContentBlocks()));
+                builder.tags(new HashSet<>(contentProjectionRepository.findTags(contentId)));
+                builder.contentBlocks(contentProjectionRepository.findContentBlocks(contentId));
                 break;
 
             case ROUTINE:
-                Routine routine = (Routine) content;
-                builder.routineLevel(routine.getRoutineLevel());
-                builder.goals(new HashSet<>(routine.getGoals()));
-                
-                builder.trainingDtos(new ArrayList<>(routine.getTrainings()).stream()
-                    .map(trainingService::toDTO) 
-                    .collect(Collectors.toList()));
+                builder.routineLevel(header.getRoutineLevel());
+                builder.goals(new HashSet<>(contentProjectionRepository.findGoals(contentId)));
+                builder.trainingDtos(toTrainingDTOs(contentId));
                 break;
 
             default:
                 break;
         }
-        
+
         return builder.build();
     }
+
+    /**
+     * Agrupa as linhas de treinos, grupos musculares e séries por treino, preservando a ordem da rotina.
+     */
+    private List<TrainingDTO> toTrainingDTOs(Long routineId)
+    {
+        Map<Long, TrainingDTO> trainings = new LinkedHashMap<>();
+
+        for (TrainingView training : contentProjectionRepository.findTrainings(routineId))
+            trainings.put(training.getId(), TrainingDTO.builder()
+                .id(training.getId())
+                .name(training.getName())
+                .targetMuscleGroups(new HashSet<>())
+                .trainingSets(new ArrayList<>())
+                .build());
+
+        if (trainings.isEmpty())
+            return new ArrayList<>();
+
+        for (TrainingMuscleGroupView row : contentProjectionRepository.findTrainingMuscleGroups(routineId))
+            trainings.get(row.getTrainingId()).getTargetMuscleGroups().add(row.getMuscleGroup());
+
+        for (TrainingSetView row : contentProjectionRepository.findTrainingSets(routineId))
+            trainings.get(row.getTrainingId()).getTrainingSets().add(TrainingSetDTO.builder()
+                .exerciseOrder(row.getExerciseOrder())
+                .exerciseId(row.getExerciseId())
+                .sets(row.getSets())
+                .repetitions(row.getRepetitions())
+                .restTimeSeconds(row.getRestTimeSeconds())
+                .technique(row.getTechnique())
+                .loadInKg(row.getLoadInKg())
+                .durationSeconds(row.getDurationSeconds())
+                .build());
+
+        return new ArrayList<>(trainings.values());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
+import com.ThimoteoConsultorias.Consulthi.model.Exercise;
+import com.ThimoteoConsultorias.Consulthi.repository.ExerciseRepository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshot imutável e versionado do catálogo de Exercícios, mantido em memória.
+ * Oferece a lista ordenada e o mapa id → Exercise.
+ * É reconstruído sob demanda após invalidate(), chamado quando o catálogo muda.
+ */
+@Component
+public class ExerciseCatalog
+{
+    // ----------------------------------------------------
+    // 1. ESTADO
+    // ----------------------------------------------------
+    private final ExerciseRepository exerciseRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot current;
+
+    /**
+     * Versão do catálogo. Os exercícios são cópias desacopladas do contexto de persistência.
+     */
+    public record Snapshot
+    (
+        long version,
+        List<Exercise> exercises,
+        Map<Long, Exercise> byId
+    ) {}
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public ExerciseCatalog(ExerciseRepository exerciseRepository)
+    {
+        this.exerciseRepository = exerciseRepository;
+    }
+
+    // ----------------------------------------------------
+    // 3. OPERAÇÕES
+    // ----------------------------------------------------
+
+    /**
+     * Retorna o snapshot atual, carregando-o do banco se estiver frio.
+     */
+    public Snapshot snapshot()
+    {
+        Snapshot snapshot = current;
+        if (snapshot != null)
+            return snapshot;
+
+        long versionAtLoad = version.get();
+        Snapshot loaded = build(versionAtLoad, exerciseRepository.findAll());
+
+        synchronized (this)
+        {
+            // Só publica se nenhuma invalidação ocorreu durante a carga
+            if (current == null && versionAtLoad == version.get())
+                current = loaded;
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Descarta o snapshot; a próxima leitura recarrega o catálogo com uma nova versão.
+     */
+    public synchronized void invalidate()
+    {
+        version.incrementAndGet();
+        current = null;
+    }
+
+    /**
+     * Garante que todos os IDs existem no catálogo: uma passada em memória com o snapshot quente,
+     * ou uma única consulta WHERE id IN (...) com ele frio.
+     * @throws ResourceNotFoundException com o primeiro ID inexistente.
+     */
+    public void requireExisting(Collection<Long> exerciseIds) throws ResourceNotFoundException
+    {
+        Set<Long> requested = new HashSet<>(exerciseIds);
+        requested.remove(null);
+
+        if (requested.isEmpty())
+            return;
+
+        Snapshot snapshot = current;
+        Set<Long> existing = snapshot != null
+            ? snapshot.byId().keySet()
+            : new HashSet<>(exerciseRepository.findIdsByIdIn(requested));
+
+        for (Long exerciseId : requested)
+            if (!existing.contains(exerciseId))
+                throw new ResourceNotFoundException("Exercício de ID " + exerciseId + " não encontrado no catálogo.");
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private Snapshot build(long snapshotVersion, List<Exercise> loaded)
+    {
+        List<Exercise> exercises = new ArrayList<>(loaded.size());
+        Map<Long, Exercise> byId = new HashMap<>();
+
+        for (Exercise exercise : loaded)
+        {
+            Exercise copy = Exercise.builder()
+                .id(exercise.getId())
+                .name(exercise.getName())
+                .description(exercise.getDescription())
+                .videoLink(exercise.getVideoLink())
+                .exerciseType(exercise.getExerciseType())
+                .muscleGroups(exercise.getMuscleGroups() == null ? Set.of() : Set.copyOf(exercise.getMuscleGroups()))
+                .build();
+
+            exercises.add(copy);
+            byId.put(copy.getId(), copy);
+        }
+
+        return new Snapshot(
+            snapshotVersion,
+            List.copyOf(exercises),
+            Map.copyOf(byId));
+    }
+}
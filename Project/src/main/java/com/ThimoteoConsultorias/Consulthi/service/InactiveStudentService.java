@@ -0,0 +1,135 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentProfessionalLinkRepository.StudentProfessionalPair;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentRepository.StudentNameView;
+import com.ThimoteoConsultorias.Consulthi.repository.TrainingHistoryRepository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detecção de alunos inativos a partir de Student.lastTrainingAt (mantido a cada registro de treino),
+ * sem varrer o histórico. Os candidatos são percorridos por chave em lotes, cada lote na própria
+ * transação: os profissionais vinculados recebem um aviso por lote e os alunos ficam marcados
+ * até voltarem a treinar.
+ */
+@Service
+public class InactiveStudentService
+{
+    // ----------------------------------------------------
+    // 1. DEPENDÊNCIAS
+    // ----------------------------------------------------
+    private static final int CHUNK_SIZE = 500;
+
+    private final StudentRepository studentRepository;
+    private final TrainingHistoryRepository trainingHistoryRepository;
+    private final StudentProfessionalLinkService linkService;
+    private final NotificationService notificationService;
+    private final TransactionTemplate chunkTransaction;
+    private final int thresholdDays;
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public InactiveStudentService
+    (
+        StudentRepository studentRepository,
+        TrainingHistoryRepository trainingHistoryRepository,
+        StudentProfessionalLinkService linkService,
+        NotificationService notificationService,
+        PlatformTransactionManager transactionManager,
+        @Value("${consulthi.inactivity.threshold-days:14}") int thresholdDays
+    )
+    {
+        this.studentRepository = studentRepository;
+        this.trainingHistoryRepository = trainingHistoryRepository;
+        this.linkService = linkService;
+        this.notificationService = notificationService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.thresholdDays = thresholdDays;
+    }
+
+    // ----------------------------------------------------
+    // 3. MÉTODOS DE DOMÍNIO
+    // ----------------------------------------------------
+
+    /**
+     * Avisa os profissionais sobre alunos sem treinar há mais de N dias.
+     * @return Quantos alunos foram marcados como inativos.
+     */
+    public int processInactiveStudents()
+    {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(thresholdDays);
+        long afterId = 0L;
+        int processed = 0;
+
+        while (true)
+        {
+            List<StudentNameView> students = studentRepository.findInactiveAfter(cutoff, afterId, Limit.of(CHUNK_SIZE));
+            if (students.isEmpty())
+                break;
+
+            chunkTransaction.executeWithoutResult(status -> notifyChunk(students));
+
+            processed += students.size();
+            afterId = students.get(students.size() - 1).getId();
+        }
+
+        if (processed > 0)
+            System.out.println("Scheduler: " + processed + " alunos sem treinar há mais de " + thresholdDays + " dias. Profissionais notificados.");
+
+        return processed;
+    }
+
+    /**
+     * Carga inicial da última atividade dos alunos a partir do histórico (apenas uma vez).
+     * @return Quantos alunos foram atualizados.
+     */
+    @Transactional
+    public int backfillLastTrainingAt()
+    {
+        if (studentRepository.existsByLastTrainingAtIsNotNull() || trainingHistoryRepository.count() == 0)
+            return 0;
+
+        return studentRepository.backfillLastTrainingAt();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private void notifyChunk(List<StudentNameView> students)
+    {
+        Map<Long, String> namesById = new HashMap<>();
+        for (StudentNameView student : students)
+            namesById.put(student.getId(), student.getFullName());
+
+        List<Long> studentIds = new ArrayList<>(namesById.keySet());
+
+        Map<Long, List<String>> studentsByProfessional = new LinkedHashMap<>();
+        for (StudentProfessionalPair pair : linkService.getPairsByStudentsAndStatusIn(studentIds, EnumSet.of(LinkStatus.ACCEPTED)))
+            studentsByProfessional.computeIfAbsent(pair.getProfessionalId(), id -> new ArrayList<>()).add(namesById.get(pair.getStudentId()));
+
+        studentsByProfessional.forEach((professionalId, inactive) ->
+            notificationService.notifyProfessionalOfInactiveStudents(professionalId, inactive, thresholdDays));
+
+        // Marca também os sem vínculo, para não voltarem como candidatos a cada noite
+        studentRepository.markInactivityNotified(studentIds, LocalDateTime.now());
+    }
+}
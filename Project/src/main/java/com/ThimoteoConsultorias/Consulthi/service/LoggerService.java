@@ -1,7 +1,7 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
-import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
-import com.ThimoteoConsultorias.Consulthi.model.User; // Para acesso a User.getFullName()
+import com.ThimoteoConsultorias.Consulthi.model.User;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentProfessionalLinkRepository.EscalatedLinkView;
 
 import org.springframework.stereotype.Service;
 
@@ -12,34 +12,37 @@ import java.util.stream.Collectors;
 public class LoggerService
 {
     /**
-     * Registra em detalhes os links que foram permanentemente deletados (por tempo de expiração).
-     * @param deletedLinks A lista de links que foram excluídos do sistema.
+     * Registra os links que foram permanentemente deletados (por tempo de expiração).
+     * Chamado a cada lote removido, para que os IDs não precisem ser acumulados em memória.
+     * @param deletedLinkIds Os IDs dos links excluídos no lote.
      */
-    public void logExpiredLinksDeletion(List<StudentProfessionalLink> deletedLinks)
+    public void logExpiredLinksDeletion(List<Long> deletedLinkIds)
     {
-        if (!deletedLinks.isEmpty())
+        if (!deletedLinkIds.isEmpty())
         {
             // Constrói uma string com os IDs dos links removidos para o log
-            String ids = deletedLinks.stream()
-                .map(link -> String.valueOf(link.getId()))
+            String ids = deletedLinkIds.stream()
+                .map(String::valueOf)
                 .collect(Collectors.joining(", "));
                 
-            System.out.println("[AUDIT LOG] DELETION: " + deletedLinks.size() + " links PENDING removidos por expiração (1 mês). IDs: [" + ids + "]");
+            System.out.println("[AUDIT LOG] DELETION: " + deletedLinkIds.size() + " links PENDING removidos por expiração (1 mês). IDs: [" + ids + "]");
         }
     }
     
     /**
      * Registra em detalhes os links que foram escalados para o Administrador (com mais de 1 semana).
-     * @param escalatedLinks A lista de links que dispararam o alerta de escalada.
+     * @param escalatedLinks Projeção dos links que dispararam o alerta de escalada (sem carregar entidades).
      */
-    public void logEscalatedLinks(List<StudentProfessionalLink> escalatedLinks)
+    public void logEscalatedLinks(List<EscalatedLinkView> escalatedLinks)
     {
         if (!escalatedLinks.isEmpty())
         {
-            // Constrói uma string detalhada para auditoria (ID do Link e Nome do Aluno)
+            // Constrói uma string detalhada para auditoria (ID do Link, Aluno, Profissional e data)
             String details = escalatedLinks.stream()
-                .map(link -> "Link ID: " + link.getId() + 
-                             ", Aluno: " + link.getStudent().getUser().getFullName())
+                .map(link -> "Link ID: " + link.getLinkId() + 
+                             ", Aluno: " + link.getStudentName() +
+                             ", Profissional: " + link.getProfessionalName() +
+                             ", Solicitado em: " + link.getDateRequest())
                 .collect(Collectors.joining("; "));
                 
             System.out.println("[AUDIT LOG] ESCALATION: " + escalatedLinks.size() + 
@@ -1,5 +1,6 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
+import com.ThimoteoConsultorias.Consulthi.dto.LinkEscalationReportDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.NotificationType;
 import com.ThimoteoConsultorias.Consulthi.enums.Role;
 import com.ThimoteoConsultorias.Consulthi.model.Notification;
@@ -7,14 +8,19 @@ import com.ThimoteoConsultorias.Consulthi.model.NotificationRecipient;
 import com.ThimoteoConsultorias.Consulthi.model.User;
 import com.ThimoteoConsultorias.Consulthi.repository.NotificationRepository;
 import com.ThimoteoConsultorias.Consulthi.repository.NotificationRecipientRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Lazy
 @Service
@@ -25,6 +31,8 @@ public class NotificationService
     // ----------------------------------------------------
     private final NotificationRepository notificationRepository;
     private final NotificationRecipientRepository recipientRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
     
     private AdministratorService administratorService; 
 
@@ -34,11 +42,15 @@ public class NotificationService
     public NotificationService
     (
         NotificationRepository notificationRepository,
-        NotificationRecipientRepository recipientRepository
+        NotificationRecipientRepository recipientRepository,
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate
     )
     {
         this.notificationRepository = notificationRepository;
         this.recipientRepository = recipientRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Autowired
@@ -90,6 +102,44 @@ public class NotificationService
         return savedNotification;
     }
     
+    /**
+     * BASE: Cria uma única notificação endereçada a vários destinatários,
+     * inserindo os destinatários com JDBC batch.
+     */
+    @Transactional
+    private Notification sendNotificationToMany
+    (
+        String title,
+        String messageBody,
+        NotificationType type,
+        Long senderUserId,
+        Collection<Long> receiverUserIds
+    )
+    {
+        if (receiverUserIds == null || receiverUserIds.isEmpty())
+            throw new IllegalArgumentException("Destinatário não especificado.");
+
+        Notification savedNotification = notificationRepository.save(Notification.builder()
+            .title(title)
+            .messageBody(messageBody)
+            .type(type)
+            .senderUserId(senderUserId)
+            .dateSent(LocalDateTime.now())
+            .build());
+
+        List<Object[]> rows = receiverUserIds.stream()
+            .map(receiverUserId -> new Object[] { savedNotification.getId(), receiverUserId })
+            .toList();
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO notification_recipient (notification_id, recipient_user_id, is_read) VALUES (?, ?, false)",
+            rows);
+
+        System.out.println("[DB NOTIFICATION] Enviada notificação de ID " + savedNotification.getId() + " para " + rows.size() + " usuário(s).");
+
+        return savedNotification;
+    }
+
     // ----------------------------------------------------
     // 4. MÉTODOS DE DOMÍNIO (FÁBRICA)
     // ----------------------------------------------------
@@ -158,6 +208,62 @@ public class NotificationService
         );
     }
 
+    /**
+     * Notificação RF01: Alunos ativados em lote (uma notificação, destinatários em batch).
+     */
+    public void notifyStudentsOfActivation(Collection<Long> studentUserIds)
+    {
+        sendNotificationToMany(
+            "Conta Ativada",
+            "Seu cadastro foi aprovado por um de seus profissionais. Você já pode fazer login e acessar o conteúdo!",
+            NotificationType.ACCESS_GRANTED,
+            0L, // Sistema
+            studentUserIds
+        );
+    }
+
+    /**
+     * Avisa os alunos cujas solicitações de vínculo foram aceitas em lote.
+     */
+    public void notifyStudentsOfLinkAcceptance(User professional, Collection<Long> studentUserIds)
+    {
+        sendNotificationToMany(
+            "Solicitação Aceita",
+            "O profissional " + professional.getUsername() + " aceitou sua solicitação de vínculo!",
+            NotificationType.INFO,
+            professional.getId(),
+            studentUserIds
+        );
+    }
+
+    /**
+     * Avisa os alunos cujas solicitações de vínculo foram recusadas em lote.
+     */
+    public void notifyStudentsOfLinkRejection(User professional, Collection<Long> studentUserIds)
+    {
+        sendNotificationToMany(
+            "Solicitação Recusada",
+            "O profissional " + professional.getUsername() + " recusou sua solicitação de vínculo.",
+            NotificationType.INFO,
+            professional.getId(),
+            studentUserIds
+        );
+    }
+
+    /**
+     * Versão em lote do encerramento de vínculo (RF05): uma notificação para todos os alunos removidos.
+     */
+    public void notifyStudentsOfLinkTermination(User professional, Collection<Long> studentUserIds)
+    {
+        sendNotificationToMany(
+            "Vínculo Encerrado",
+            "Seu vínculo com o profissional " + professional.getUsername() + " foi encerrado.",
+            NotificationType.INFO,
+            professional.getId(),
+            studentUserIds
+        );
+    }
+
     /**
      * Notificação RF01: Profissional notificado sobre nova solicitação de Aluno.
      */
@@ -186,6 +292,69 @@ public class NotificationService
         );
     }
 
+    /*
+     * ROTINAS
+     */
+
+    /**
+     * Avisa, em uma única notificação, os alunos que receberam uma rotina em lote.
+     */
+    public void notifyStudentsOfRoutineAssignment(Long professionalId, String routineName, Collection<Long> studentUserIds)
+    {
+        sendNotificationToMany(
+            "Nova Rotina Atribuída",
+            "Seu profissional atribuiu a rotina \"" + routineName + "\" a você. Confira no seu painel!",
+            NotificationType.INFO,
+            professionalId,
+            studentUserIds
+        );
+    }
+
+    /**
+     * Avisa o profissional sobre alunos vinculados que não registram treinos há mais de N dias.
+     */
+    public void notifyProfessionalOfInactiveStudents(Long professionalId, Collection<String> studentNames, int thresholdDays)
+    {
+        sendNotification(
+            "Alunos Inativos",
+            "Os alunos " + String.join(", ", studentNames) + " não registram treinos há mais de " + thresholdDays + " dias.",
+            NotificationType.WARNING,
+            0L, // Sistema
+            professionalId
+        );
+    }
+
+    /**
+     * Avisa o aluno e os profissionais autores das rotinas sobre recordes pessoais batidos em uma ou mais sessões.
+     * O aluno recebe uma mensagem em segunda pessoa com todos os recordes; cada profissional, com o nome do aluno,
+     * apenas os recordes batidos nas suas rotinas.
+     * @param summaryByCoach Resumo dos recordes por profissional autor.
+     */
+    public void notifyPersonalRecords(Long studentUserId, String summary, Map<Long, String> summaryByCoach)
+    {
+        sendNotification(
+            "Novo Recorde Pessoal!",
+            "Você bateu recorde(s) pessoal(is) — " + summary + ".",
+            NotificationType.INFO,
+            0L, // Sistema
+            studentUserId
+        );
+
+        if (summaryByCoach.isEmpty())
+            return;
+
+        String studentName = userRepository.findFullNameById(studentUserId).orElse("de ID " + studentUserId);
+
+        summaryByCoach.forEach((coachUserId, coachSummary) ->
+            sendNotification(
+                "Novo Recorde Pessoal!",
+                "O aluno " + studentName + " bateu recorde(s) pessoal(is) — " + coachSummary + ".",
+                NotificationType.INFO,
+                0L, // Sistema
+                coachUserId
+            ));
+    }
+
     /*
      * ADMIN/REGISTRO
      */
@@ -206,17 +375,33 @@ public class NotificationService
     }
 
     /**
-     * Notificação RF01: Alerta de Escalada (1 semana) para o Administrador.
+     * Notificação RF01: Alerta de Escalada (1 semana) para o Administrador, com o relatório agregado
+     * (total, solicitação mais antiga e profissionais com maior acúmulo).
      */
-    public void notifyAdminOfEscalation(int count)
+    public void notifyAdminOfEscalation(LinkEscalationReportDTO report)
     {
-        for (Long adminId : administratorService.getAdministratorIds())
-            sendNotification(
-                "ALERTA: Solicitações Expirando",
-                "Existem " + count + " vínculos de alunos pendentes há mais de uma semana. Revisão urgente necessária.",
-                NotificationType.SYSTEM_ALERT,
-                0L, // Sistema
-                adminId
-            );
+        List<Long> adminIds = administratorService.getAdministratorIds();
+        if (adminIds.isEmpty())
+            return;
+
+        StringBuilder body = new StringBuilder()
+            .append("Existem ").append(report.getPendingCount())
+            .append(" vínculos de alunos pendentes há mais de uma semana. Revisão urgente necessária.");
+
+        if (report.getOldestRequest() != null)
+            body.append(" Solicitação mais antiga: ").append(report.getOldestRequest().toLocalDate()).append('.');
+
+        if (!report.getTopProfessionals().isEmpty())
+            body.append(" Maiores acúmulos: ").append(report.getTopProfessionals().stream()
+                .map(backlog -> backlog.getProfessionalName() + " (" + backlog.getPendingCount() + ")")
+                .collect(Collectors.joining(", "))).append('.');
+
+        sendNotificationToMany(
+            "ALERTA: Solicitações Expirando",
+            body.toString(),
+            NotificationType.SYSTEM_ALERT,
+            0L, // Sistema
+            adminIds
+        );
     }
-}
\ No newline at end of file
+}
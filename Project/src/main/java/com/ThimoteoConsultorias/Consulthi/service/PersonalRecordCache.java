@@ -0,0 +1,223 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.CacheStatsDTO;
+import com.ThimoteoConsultorias.Consulthi.model.PersonalRecord;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória (LRU por aluno) dos recordes pessoais, em arrays primitivos:
+ * IDs de exercício ordenados (busca binária) e uma coluna por métrica.
+ * As atualizações são aplicadas após o commit, sempre pelo maior valor.
+ */
+@Component
+public class PersonalRecordCache
+{
+    // ----------------------------------------------------
+    // 1. ESTADO
+    // ----------------------------------------------------
+    private static final String NAME = "personal-records";
+
+    /** Bytes por exercício: long + float + int + int + float. */
+    private static final int BYTES_PER_EXERCISE = 24;
+
+    private final int maxStudents;
+
+    private final LinkedHashMap<Long, StudentRecords> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long invalidationEpoch;
+    private long currentWeight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Recordes de um aluno, imutáveis; as posições dos arrays correspondem a exerciseIds (ordenado).
+     */
+    public record StudentRecords
+    (
+        long[] exerciseIds,
+        float[] maxLoadKg,
+        int[] repsAtMaxLoad,
+        int[] maxRepetitions,
+        float[] estimatedOneRepMaxKg
+    )
+    {
+        static final StudentRecords EMPTY = new StudentRecords(new long[0], new float[0], new int[0], new int[0], new float[0]);
+
+        /** Posição do exercício, ou negativa se não houver estado. */
+        public int indexOf(long exerciseId)
+        {
+            return Arrays.binarySearch(exerciseIds, exerciseId);
+        }
+
+        long weight()
+        {
+            return 64 + (long) BYTES_PER_EXERCISE * exerciseIds.length;
+        }
+
+        /**
+         * Nova versão com os registros mesclados pelo maior valor (reps na carga máxima seguem a carga).
+         */
+        StudentRecords merge(Collection<PersonalRecord> records)
+        {
+            long[] ids = Arrays.copyOf(exerciseIds, exerciseIds.length + records.size());
+            float[] loads = Arrays.copyOf(maxLoadKg, ids.length);
+            int[] repsAtLoad = Arrays.copyOf(repsAtMaxLoad, ids.length);
+            int[] reps = Arrays.copyOf(maxRepetitions, ids.length);
+            float[] oneRepMax = Arrays.copyOf(estimatedOneRepMaxKg, ids.length);
+            int size = exerciseIds.length;
+
+            for (PersonalRecord record : records)
+            {
+                long exerciseId = record.getId().getExerciseId();
+                int index = Arrays.binarySearch(ids, 0, size, exerciseId);
+
+                if (index < 0)
+                {
+                    index = -index - 1;
+                    System.arraycopy(ids, index, ids, index + 1, size - index);
+                    System.arraycopy(loads, index, loads, index + 1, size - index);
+                    System.arraycopy(repsAtLoad, index, repsAtLoad, index + 1, size - index);
+                    System.arraycopy(reps, index, reps, index + 1, size - index);
+                    System.arraycopy(oneRepMax, index, oneRepMax, index + 1, size - index);
+
+                    ids[index] = exerciseId;
+                    loads[index] = 0;
+                    repsAtLoad[index] = 0;
+                    reps[index] = 0;
+                    oneRepMax[index] = 0;
+                    size++;
+                }
+
+                if (record.getMaxLoadKg() > loads[index])
+                {
+                    loads[index] = record.getMaxLoadKg();
+                    repsAtLoad[index] = record.getRepsAtMaxLoad();
+                }
+                else if (record.getMaxLoadKg() == loads[index])
+                    repsAtLoad[index] = Math.max(repsAtLoad[index], record.getRepsAtMaxLoad());
+
+                reps[index] = Math.max(reps[index], record.getMaxRepetitions());
+                oneRepMax[index] = Math.max(oneRepMax[index], record.getEstimatedOneRepMaxKg());
+            }
+
+            return new StudentRecords(
+                Arrays.copyOf(ids, size),
+                Arrays.copyOf(loads, size),
+                Arrays.copyOf(repsAtLoad, size),
+                Arrays.copyOf(reps, size),
+                Arrays.copyOf(oneRepMax, size));
+        }
+    }
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public PersonalRecordCache(@Value("${consulthi.cache.personal-records.max-students:10000}") int maxStudents)
+    {
+        this.maxStudents = maxStudents;
+    }
+
+    // ----------------------------------------------------
+    // 3. OPERAÇÕES
+    // ----------------------------------------------------
+
+    /**
+     * Retorna os recordes do aluno, carregando as linhas de estado pelo loader em caso de ausência.
+     */
+    public StudentRecords get(Long studentId, Supplier<List<PersonalRecord>> loader)
+    {
+        long epochAtLoad;
+
+        synchronized (this)
+        {
+            StudentRecords cached = entries.get(studentId);
+            if (cached != null)
+            {
+                hits++;
+                return cached;
+            }
+
+            misses++;
+            epochAtLoad = invalidationEpoch;
+        }
+
+        StudentRecords loaded = StudentRecords.EMPTY.merge(loader.get());
+
+        synchronized (this)
+        {
+            // Uma gravação sem entrada em cache durante a carga pode tornar o estado lido obsoleto
+            if (epochAtLoad == invalidationEpoch && !entries.containsKey(studentId))
+            {
+                entries.put(studentId, loaded);
+                currentWeight += loaded.weight();
+                evictToCapacity();
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Aplica registros já gravados ao estado em cache. Deve ser chamado após o commit.
+     */
+    public synchronized void apply(Long studentId, Collection<PersonalRecord> records)
+    {
+        StudentRecords cached = entries.get(studentId);
+        if (cached == null)
+        {
+            invalidationEpoch++;
+            return;
+        }
+
+        StudentRecords merged = cached.merge(records);
+        entries.put(studentId, merged);
+        currentWeight += merged.weight() - cached.weight();
+    }
+
+    public synchronized void evict(Long studentId)
+    {
+        invalidationEpoch++;
+        StudentRecords removed = entries.remove(studentId);
+        if (removed != null)
+            currentWeight -= removed.weight();
+    }
+
+    public synchronized CacheStatsDTO getStats()
+    {
+        return CacheStatsDTO.builder()
+            .name(NAME)
+            .size(entries.size())
+            .weight(currentWeight)
+            .hits(hits)
+            .misses(misses)
+            .evictions(evictions)
+            .build();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    private void evictToCapacity()
+    {
+        Iterator<Map.Entry<Long, StudentRecords>> iterator = entries.entrySet().iterator();
+
+        while (entries.size() > maxStudents && iterator.hasNext())
+        {
+            currentWeight -= iterator.next().getValue().weight();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
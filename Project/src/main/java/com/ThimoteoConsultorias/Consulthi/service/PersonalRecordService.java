@@ -0,0 +1,323 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.config.AfterCommitExecutor;
+import com.ThimoteoConsultorias.Consulthi.dto.PersonalRecordDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+import com.ThimoteoConsultorias.Consulthi.model.Exercise;
+import com.ThimoteoConsultorias.Consulthi.model.PersonalRecord;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.PersonalRecordId;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+import com.ThimoteoConsultorias.Consulthi.repository.PersonalRecordRepository;
+import com.ThimoteoConsultorias.Consulthi.service.PersonalRecordCache.StudentRecords;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detecção de recordes pessoais (carga máxima, repetições na carga máxima, repetições máximas
+ * e 1RM estimado) no registro de cada sessão, sem reler o histórico: cada série é comparada
+ * com o estado em cache do aluno, e só os exercícios superados são gravados.
+ * Lotes sincronizados são avaliados em ordem de execução, com a melhor marca acumulada entre as sessões.
+ */
+@Service
+public class PersonalRecordService
+{
+    // ----------------------------------------------------
+    // 1. DEPENDÊNCIAS
+    // ----------------------------------------------------
+
+    /** Diferença mínima no 1RM estimado para contar como recorde (evita ruído de arredondamento). */
+    private static final float ONE_REP_MAX_EPSILON_KG = 0.05f;
+
+    private static final String UPSERT_RECORD =
+        "INSERT INTO personal_record (student_user_id, exercise_id, max_load_kg, reps_at_max_load, max_repetitions, estimated_one_rep_max_kg, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (student_user_id, exercise_id) DO UPDATE SET " +
+        "reps_at_max_load = CASE " +
+        "    WHEN EXCLUDED.max_load_kg > personal_record.max_load_kg THEN EXCLUDED.reps_at_max_load " +
+        "    WHEN EXCLUDED.max_load_kg = personal_record.max_load_kg THEN GREATEST(personal_record.reps_at_max_load, EXCLUDED.reps_at_max_load) " +
+        "    ELSE personal_record.reps_at_max_load END, " +
+        "max_load_kg = GREATEST(personal_record.max_load_kg, EXCLUDED.max_load_kg), " +
+        "max_repetitions = GREATEST(personal_record.max_repetitions, EXCLUDED.max_repetitions), " +
+        "estimated_one_rep_max_kg = GREATEST(personal_record.estimated_one_rep_max_kg, EXCLUDED.estimated_one_rep_max_kg), " +
+        "updated_at = EXCLUDED.updated_at";
+
+    private final PersonalRecordRepository personalRecordRepository;
+    private final PersonalRecordCache personalRecordCache;
+    private final ExerciseCatalog exerciseCatalog;
+    private final NotificationService notificationService;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sessão a avaliar: séries do template, séries registradas e autor da rotina (notificado se houver recorde).
+     */
+    public record SessionSets(Long coachUserId, LocalDateTime executedAt, List<TrainingSet> templateSets, List<SetLogEntryDTO> performedSets) {}
+
+    /** Melhor marca de um exercício durante a avaliação de uma ou mais sessões. */
+    private static final class RunningRecord
+    {
+        /** Há marca anterior (em cache ou de uma sessão anterior do lote) contra a qual comparar. */
+        boolean hasBaseline;
+        float maxLoadKg;
+        int repsAtMaxLoad;
+        int maxRepetitions;
+        float estimatedOneRepMaxKg;
+
+        boolean changed;
+        boolean newMaxLoad;
+        boolean newMaxRepetitions;
+        boolean newEstimatedOneRepMax;
+
+        /** Autor da rotina da última sessão que superou a marca. */
+        Long coachUserId;
+
+        RunningRecord(StudentRecords records, long exerciseId)
+        {
+            int index = records.indexOf(exerciseId);
+            hasBaseline = index >= 0;
+
+            if (hasBaseline)
+            {
+                maxLoadKg = records.maxLoadKg()[index];
+                repsAtMaxLoad = records.repsAtMaxLoad()[index];
+                maxRepetitions = records.maxRepetitions()[index];
+                estimatedOneRepMaxKg = records.estimatedOneRepMaxKg()[index];
+            }
+        }
+
+        /**
+         * Compara uma série com a melhor marca atual.
+         * @return Se alguma métrica superou uma marca anterior (e não apenas a estabeleceu).
+         */
+        boolean offer(float load, int reps)
+        {
+            boolean improved = false;
+
+            if (load > maxLoadKg || (load == maxLoadKg && reps > repsAtMaxLoad))
+            {
+                maxLoadKg = load;
+                repsAtMaxLoad = reps;
+                newMaxLoad |= hasBaseline;
+                improved = true;
+            }
+
+            if (reps > maxRepetitions)
+            {
+                maxRepetitions = reps;
+                newMaxRepetitions |= hasBaseline;
+                improved = true;
+            }
+
+            float oneRepMax = estimateOneRepMax(load, reps);
+            if (oneRepMax > estimatedOneRepMaxKg + ONE_REP_MAX_EPSILON_KG)
+            {
+                estimatedOneRepMaxKg = oneRepMax;
+                newEstimatedOneRepMax |= hasBaseline;
+                improved = true;
+            }
+
+            changed |= improved;
+            return improved && hasBaseline;
+        }
+
+        boolean beaten()
+        {
+            return newMaxLoad || newMaxRepetitions || newEstimatedOneRepMax;
+        }
+    }
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public PersonalRecordService
+    (
+        PersonalRecordRepository personalRecordRepository,
+        PersonalRecordCache personalRecordCache,
+        ExerciseCatalog exerciseCatalog,
+        NotificationService notificationService,
+        AfterCommitExecutor afterCommitExecutor,
+        JdbcTemplate jdbcTemplate
+    )
+    {
+        this.personalRecordRepository = personalRecordRepository;
+        this.personalRecordCache = personalRecordCache;
+        this.exerciseCatalog = exerciseCatalog;
+        this.notificationService = notificationService;
+        this.afterCommitExecutor = afterCommitExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ----------------------------------------------------
+    // 3. MÉTODOS DE DOMÍNIO
+    // ----------------------------------------------------
+
+    /**
+     * Avalia as séries de uma sessão contra os recordes do aluno (uma passada, O(séries)),
+     * grava os exercícios superados e notifica aluno e profissional.
+     * A primeira sessão registrada de um exercício apenas estabelece a marca, sem notificação.
+     * Deve ser chamado na transação que grava o TrainingHistory.
+     * @param coachUserId Autor da rotina, notificado junto com o aluno (pode ser nulo).
+     * @return Os recordes batidos (exercícios já com estado anterior).
+     */
+    public List<PersonalRecordDTO> evaluateSession(Long studentUserId, Long coachUserId, List<TrainingSet> templateSets, List<SetLogEntryDTO> performedSets)
+    {
+        return evaluateSessions(studentUserId, List.of(new SessionSets(coachUserId, LocalDateTime.now(), templateSets, performedSets)));
+    }
+
+    /**
+     * Avalia um lote de sessões do aluno em ordem de execução, levando a melhor marca de cada exercício
+     * de uma sessão para a seguinte: uma sessão que não supera a anterior do mesmo lote não conta como recorde.
+     * Grava cada exercício superado uma vez e envia uma única notificação para o lote.
+     * Deve ser chamado na transação que grava os TrainingHistory.
+     * @return Os recordes batidos no lote, com os valores finais de cada exercício.
+     */
+    public List<PersonalRecordDTO> evaluateSessions(Long studentUserId, List<SessionSets> sessions)
+    {
+        List<SessionSets> ordered = sessions.stream()
+            .filter(session -> session.performedSets() != null && !session.performedSets().isEmpty() && session.templateSets() != null)
+            .sorted(Comparator.comparing(SessionSets::executedAt))
+            .toList();
+
+        if (ordered.isEmpty())
+            return List.of();
+
+        StudentRecords records = personalRecordCache.get(studentUserId, () -> personalRecordRepository.findByStudentId(studentUserId));
+        Map<Long, RunningRecord> running = new LinkedHashMap<>();
+
+        for (SessionSets session : ordered)
+        {
+            List<TrainingSet> templateSets = session.templateSets();
+            List<RunningRecord> touched = new ArrayList<>();
+
+            for (SetLogEntryDTO entry : session.performedSets())
+            {
+                if (entry.getTrainingSetIndex() >= templateSets.size())
+                    continue;
+
+                Long exerciseId = templateSets.get(entry.getTrainingSetIndex()).getExerciseId();
+                int reps = entry.getRepetitions() == null ? 0 : entry.getRepetitions();
+                float load = entry.getLoadInKg() == null ? 0 : entry.getLoadInKg();
+
+                if (exerciseId == null || reps == 0)
+                    continue;
+
+                RunningRecord best = running.computeIfAbsent(exerciseId, id -> new RunningRecord(records, id));
+                touched.add(best);
+
+                if (best.offer(load, reps))
+                    best.coachUserId = session.coachUserId();
+            }
+
+            // A primeira sessão de um exercício estabelece a marca contra a qual as seguintes são comparadas
+            touched.forEach(best -> best.hasBaseline = true);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Exercise> exercises = exerciseCatalog.snapshot().byId();
+
+        List<PersonalRecord> changed = new ArrayList<>();
+        List<PersonalRecordDTO> beaten = new ArrayList<>();
+        Map<Long, List<PersonalRecordDTO>> beatenByCoach = new LinkedHashMap<>();
+
+        running.forEach((exerciseId, best) ->
+        {
+            if (!best.changed)
+                return;
+
+            changed.add(PersonalRecord.builder()
+                .id(new PersonalRecordId(studentUserId, exerciseId))
+                .maxLoadKg(best.maxLoadKg)
+                .repsAtMaxLoad(best.repsAtMaxLoad)
+                .maxRepetitions(best.maxRepetitions)
+                .estimatedOneRepMaxKg(best.estimatedOneRepMaxKg)
+                .updatedAt(now)
+                .build());
+
+            if (best.beaten())
+            {
+                Exercise exercise = exercises.get(exerciseId);
+                PersonalRecordDTO record = PersonalRecordDTO.builder()
+                    .exerciseId(exerciseId)
+                    .exerciseName(exercise != null ? exercise.getName() : "Exercício " + exerciseId)
+                    .maxLoadKg(best.maxLoadKg)
+                    .repsAtMaxLoad(best.repsAtMaxLoad)
+                    .maxRepetitions(best.maxRepetitions)
+                    .estimatedOneRepMaxKg(best.estimatedOneRepMaxKg)
+                    .newMaxLoad(best.newMaxLoad)
+                    .newMaxRepetitions(best.newMaxRepetitions)
+                    .newEstimatedOneRepMax(best.newEstimatedOneRepMax)
+                    .build();
+
+                beaten.add(record);
+                if (best.coachUserId != null && !best.coachUserId.equals(studentUserId))
+                    beatenByCoach.computeIfAbsent(best.coachUserId, id -> new ArrayList<>()).add(record);
+            }
+        });
+
+        if (changed.isEmpty())
+            return beaten;
+
+        List<Object[]> rows = new ArrayList<>(changed.size());
+        for (PersonalRecord record : changed)
+            rows.add(new Object[] {
+                studentUserId, record.getId().getExerciseId(), record.getMaxLoadKg(), record.getRepsAtMaxLoad(),
+                record.getMaxRepetitions(), record.getEstimatedOneRepMaxKg(), Timestamp.valueOf(now) });
+
+        jdbcTemplate.batchUpdate(UPSERT_RECORD, rows);
+        afterCommitExecutor.execute(() -> personalRecordCache.apply(studentUserId, changed));
+
+        if (!beaten.isEmpty())
+        {
+            Map<Long, String> summaryByCoach = new LinkedHashMap<>();
+            beatenByCoach.forEach((coachUserId, coachRecords) -> summaryByCoach.put(coachUserId, summaryOf(coachRecords)));
+
+            notificationService.notifyPersonalRecords(studentUserId, summaryOf(beaten), summaryByCoach);
+        }
+
+        return beaten;
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    /**
+     * 1RM estimado pela fórmula de Epley; uma repetição vale a própria carga.
+     */
+    private static float estimateOneRepMax(float loadKg, int reps)
+    {
+        if (loadKg <= 0)
+            return 0;
+
+        return reps == 1 ? loadKg : loadKg * (1 + reps / 30f);
+    }
+
+    private static String summaryOf(List<PersonalRecordDTO> beaten)
+    {
+        List<String> lines = new ArrayList<>(beaten.size());
+
+        for (PersonalRecordDTO record : beaten)
+        {
+            List<String> parts = new ArrayList<>(3);
+            if (record.isNewMaxLoad())
+                parts.add(String.format("carga %.1f kg x %d", record.getMaxLoadKg(), record.getRepsAtMaxLoad()));
+            if (record.isNewMaxRepetitions())
+                parts.add(record.getMaxRepetitions() + " repetições");
+            if (record.isNewEstimatedOneRepMax())
+                parts.add(String.format("1RM estimado %.1f kg", record.getEstimatedOneRepMaxKg()));
+
+            lines.add(record.getExerciseName() + ": " + String.join(", ", parts));
+        }
+
+        return String.join("; ", lines);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Analisador de texto para o índice de busca: minúsculas, remoção de acentos,
+ * descarte de stopwords e redução leve de plurais do português.
+ * O mesmo analisador é aplicado aos documentos e às consultas.
+ */
+final class PortugueseAnalyzer
+{
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "ao", "aos", "as", "com", "como", "da", "das", "de", "do", "dos", "e", "em", "entre",
+        "um", "uma", "uns", "umas", "na", "nas", "no", "nos", "o", "os", "ou", "para", "pela", "pelas",
+        "pelo", "pelos", "por", "que", "se", "sem", "seu", "sua", "seus", "suas", "ser", "the", "of", "and"
+    );
+
+    private PortugueseAnalyzer() {}
+
+    /**
+     * Quebra o texto em termos normalizados, na ordem em que aparecem (com repetições).
+     */
+    static List<String> tokenize(String text)
+    {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank())
+            return terms;
+
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+
+        for (String token : SEPARATORS.split(folded))
+        {
+            if (token.length() < 2 || STOPWORDS.contains(token))
+                continue;
+
+            terms.add(stem(token));
+        }
+
+        return terms;
+    }
+
+    /**
+     * Reduz plurais comuns à forma singular (ex.: "refeições" → "refeicao", "proteínas" → "proteina").
+     */
+    private static String stem(String token)
+    {
+        if (token.length() <= 3 || Character.isDigit(token.charAt(token.length() - 1)))
+            return token;
+
+        if (token.endsWith("oes") || token.endsWith("aes"))
+            return token.substring(0, token.length() - 3) + "ao";
+        if (token.endsWith("ais"))
+            return token.substring(0, token.length() - 3) + "al";
+        if (token.endsWith("eis"))
+            return token.substring(0, token.length() - 3) + "el";
+        if (token.endsWith("ns"))
+            return token.substring(0, token.length() - 2) + "m";
+        if (token.endsWith("s") && !token.endsWith("ss"))
+            return token.substring(0, token.length() - 1);
+
+        return token;
+    }
+}
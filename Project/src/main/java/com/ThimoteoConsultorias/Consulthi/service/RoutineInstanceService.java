@@ -1,5 +1,20 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
+import com.ThimoteoConsultorias.Consulthi.dto.AdherenceRosterItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.PerformedSetsDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineAssignmentResultDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineInstancePageDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineInstanceRollupDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.RoutineInstanceSummaryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogAggregateDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingHistoryItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingHistoryPageDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSessionSummaryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSyncItemDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSyncResultDTO;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
 import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.Content;
 import com.ThimoteoConsultorias.Consulthi.model.Routine;
@@ -7,15 +22,35 @@ import com.ThimoteoConsultorias.Consulthi.model.RoutineInstance;
 import com.ThimoteoConsultorias.Consulthi.model.Student;
 import com.ThimoteoConsultorias.Consulthi.model.Training;
 import com.ThimoteoConsultorias.Consulthi.model.TrainingHistory;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.ContentProjectionRepository.ContentOwnershipView;
 import com.ThimoteoConsultorias.Consulthi.repository.RoutineInstanceRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.RoutineInstanceRepository.InstanceTrainingView;
 import com.ThimoteoConsultorias.Consulthi.repository.TrainingHistoryRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.TrainingSessionRollupRepository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class RoutineInstanceService
@@ -23,11 +58,33 @@ public class RoutineInstanceService
     // ----------------------------------------------------
     // 1. DEPENDÊNCIAS
     // ----------------------------------------------------
+    public static final int DEFAULT_ARCHIVE_PAGE_SIZE = 20;
+    private static final int MAX_ARCHIVE_PAGE_SIZE = 100;
+
+    public static final int DEFAULT_HISTORY_PAGE_SIZE = 15;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final LocalDateTime HISTORY_FIRST_PAGE_CURSOR_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final int MAX_SYNC_BATCH_SIZE = 200;
+    private static final int MAX_CLIENT_KEY_LENGTH = 64;
+    /** Tolerância para relógios de clientes adiantados na sincronização offline. */
+    private static final Duration SYNC_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    /** Fim usado para períodos sem data de término nas verificações de sobreposição. */
+    private static final LocalDate OPEN_END_DATE = LocalDate.of(9999, 12, 31);
+
     private final RoutineInstanceRepository routineInstanceRepository;
     private final TrainingHistoryRepository trainingHistoryRepository;
+    private final TrainingSessionRollupRepository rollupRepository;
     private final StudentService studentService;
     private final ContentService contentService;
     private final TrainingService trainingService;
+    private final ContentProjectionRepository contentProjectionRepository;
+    private final StudentProfessionalLinkService linkService;
+    private final NotificationService notificationService;
+    private final TrainingVolumeService trainingVolumeService;
+    private final PersonalRecordService personalRecordService;
+    private final JdbcTemplate jdbcTemplate;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
@@ -36,16 +93,30 @@ public class RoutineInstanceService
     (
         RoutineInstanceRepository routineInstanceRepository,
         TrainingHistoryRepository trainingHistoryRepository,
+        TrainingSessionRollupRepository rollupRepository,
         ContentService contentService,
         StudentService studentService,
-        TrainingService trainingService
+        TrainingService trainingService,
+        ContentProjectionRepository contentProjectionRepository,
+        StudentProfessionalLinkService linkService,
+        NotificationService notificationService,
+        TrainingVolumeService trainingVolumeService,
+        PersonalRecordService personalRecordService,
+        JdbcTemplate jdbcTemplate
     )
     {
         this.routineInstanceRepository = routineInstanceRepository;
         this.trainingHistoryRepository = trainingHistoryRepository;
+        this.rollupRepository = rollupRepository;
         this.studentService = studentService;
         this.contentService = contentService;
         this.trainingService = trainingService;
+        this.contentProjectionRepository = contentProjectionRepository;
+        this.linkService = linkService;
+        this.notificationService = notificationService;
+        this.trainingVolumeService = trainingVolumeService;
+        this.personalRecordService = personalRecordService;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     // ----------------------------------------------------
@@ -83,43 +154,157 @@ public class RoutineInstanceService
              throw new IllegalArgumentException("O ID fornecido não pertence a um template de Rotina.");
         }
 
-        try
-        {
-            RoutineInstance existingInstance = getActiveRoutineInstance(student, routine);
-            if (existingInstance != null)
-                throw new IllegalStateException("Esta rotina já está ativa para este aluno.");
-        }
-        catch(ResourceNotFoundException doNothing){}
+        if (!routineInstanceRepository.findStudentIdsWithOverlappingInstance(
+                routine.getId(), List.of(studentUserId), startDate, endDate == null ? OPEN_END_DATE : endDate).isEmpty())
+            throw new IllegalStateException("Esta rotina já está ativa para este aluno.");
         
         RoutineInstance instance = RoutineInstance.builder()
             .student(student)
             .routine(routine)
             .startDate(startDate)
             .endDate(endDate)
+            .expectedSessions(AdherenceService.expectedSessions(routine.getTrainings().size(), startDate, endDate, LocalDate.now()))
             .build();
             
         return routineInstanceRepository.save(instance);
     }
     
+    /**
+     * Atribui uma rotina do profissional a vários alunos de uma vez.
+     * Tipo e autoria vêm de uma projeção (sem carregar o grafo da rotina), vínculos e instâncias
+     * existentes são verificados com uma consulta cada, as instâncias são inseridas com JDBC batch
+     * e os alunos atendidos recebem uma única notificação.
+     * Alunos sem vínculo ativo ou que já possuem a rotina vigente no período são ignorados e informados no resultado.
+     * @throws ResourceNotFoundException se a rotina não existir.
+     * @throws SecurityException se a rotina não pertencer ao profissional.
+     * @throws IllegalArgumentException se o conteúdo não for uma Rotina, sem alunos ou com datas inválidas.
+     */
+    @Transactional
+    public RoutineAssignmentResultDTO assignRoutineToStudents
+    (
+        Long professionalId,
+        Long routineContentId,
+        Collection<Long> studentUserIds,
+        LocalDate startDate,
+        LocalDate endDate
+    )
+    {
+        if (studentUserIds == null || studentUserIds.isEmpty())
+            throw new IllegalArgumentException("Selecione ao menos um aluno.");
+        if (startDate == null)
+            throw new IllegalArgumentException("Informe a data de início da rotina.");
+        if (endDate != null && endDate.isBefore(startDate))
+            throw new IllegalArgumentException("A data de fim não pode ser anterior à data de início.");
+
+        ContentOwnershipView routine = contentProjectionRepository.findOwnershipById(routineContentId)
+            .orElseThrow(() -> new ResourceNotFoundException("Rotina de id '" + routineContentId + "' não encontrada."));
+
+        if (!professionalId.equals(routine.getCreatorId()))
+            throw new SecurityException("Você só pode atribuir rotinas criadas por você.");
+        if (routine.getContentType() != ContentType.ROUTINE)
+            throw new IllegalArgumentException("O ID fornecido não pertence a um template de Rotina.");
+
+        Set<Long> requested = new LinkedHashSet<>(studentUserIds);
+        requested.remove(null);
+
+        Set<Long> linked = new HashSet<>(linkService.getStudentIdsByProfessionalAndStatusIn(professionalId, requested, EnumSet.of(LinkStatus.ACCEPTED)));
+        Set<Long> alreadyAssigned = linked.isEmpty()
+            ? Set.of()
+            : new HashSet<>(routineInstanceRepository.findStudentIdsWithOverlappingInstance(
+                routineContentId, linked, startDate, endDate == null ? OPEN_END_DATE : endDate));
+
+        List<Long> assigned = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        List<Long> notLinked = new ArrayList<>();
+
+        for (Long studentUserId : requested)
+        {
+            if (!linked.contains(studentUserId))
+                notLinked.add(studentUserId);
+            else if (alreadyAssigned.contains(studentUserId))
+                skipped.add(studentUserId);
+            else
+                assigned.add(studentUserId);
+        }
+
+        if (!assigned.isEmpty())
+        {
+            int expectedSessions = AdherenceService.expectedSessions(
+                contentProjectionRepository.countTrainings(routineContentId), startDate, endDate, LocalDate.now());
+
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO routine_instance (student_user_id, routine_content_id, start_date, end_date, completed_sessions, expected_sessions) " +
+                "VALUES (?, ?, ?, ?, 0, ?)",
+                assigned,
+                assigned.size(),
+                (statement, studentUserId) ->
+                {
+                    statement.setLong(1, studentUserId);
+                    statement.setLong(2, routineContentId);
+                    statement.setDate(3, Date.valueOf(startDate));
+                    if (endDate == null)
+                        statement.setNull(4, Types.DATE);
+                    else
+                        statement.setDate(4, Date.valueOf(endDate));
+                    statement.setInt(5, expectedSessions);
+                });
+
+            notificationService.notifyStudentsOfRoutineAssignment(professionalId, routine.getName(), assigned);
+        }
+
+        return RoutineAssignmentResultDTO.builder()
+            .assignedStudentIds(assigned)
+            .alreadyAssignedStudentIds(skipped)
+            .notLinkedStudentIds(notLinked)
+            .build();
+    }
+
     /*
      * HISTÓRICO / LOG
      */
 
     /**
-     * Registra a execução de um treino por parte do aluno (Histórico).
+     * Registra a execução de um treino por parte do aluno (Histórico), sem detalhar as séries.
      * @param routineInstanceId A instância de rotina que está sendo executada.
      * @param trainingId O ID do Treino (Template) que foi realizado.
      * @param studentNotes Notas do aluno sobre o treino.
      * @return O registro de TrainingHistory criado.
      * @throws ResourceNotFoundException se Instância ou Treino não forem encontrados.
+     * @throws IllegalArgumentException se o treino não pertencer à rotina da instância.
      */
     @Transactional
     public TrainingHistory logTrainingExecution(Long routineInstanceId, Long trainingId, String studentNotes)
+    {
+        return logTrainingExecution(routineInstanceId, trainingId, studentNotes, List.of());
+    }
+
+    /**
+     * Registra a execução de um treino com as séries realizadas (repetições, carga e duração).
+     * As séries são gravadas em um único blob compacto no próprio TrainingHistory, junto com
+     * os totais da sessão usados nas agregações.
+     * @param performedSets Séries realizadas por TrainingSet do template (pode ser vazio).
+     * @throws ResourceNotFoundException se Instância ou Treino não forem encontrados.
+     * @throws IllegalArgumentException se o treino não pertencer à rotina da instância,
+     * ou se alguma série não pertencer ao treino ou tiver valores negativos.
+     */
+    @Transactional
+    public TrainingHistory logTrainingExecution(Long routineInstanceId, Long trainingId, String studentNotes, List<PerformedSetsDTO> performedSets)
     {
         RoutineInstance instance = routineInstanceRepository.findById(routineInstanceId)
             .orElseThrow(() -> new ResourceNotFoundException("Instância de rotina não encontrada."));
+
+        // Mesma validação da sincronização em lote: o treino precisa fazer parte da rotina da instância
+        boolean trainingInRoutine = routineInstanceRepository
+            .findTrainingsOfStudentInstances(instance.getStudent().getId(), List.of(routineInstanceId))
+            .stream()
+            .anyMatch(view -> view.getTrainingId().equals(trainingId));
+
+        if (!trainingInRoutine)
+            throw new IllegalArgumentException("O treino não pertence à rotina da instância.");
         
         Training trainingTemplate = trainingService.getTrainingById(trainingId);
+
+        List<SetLogEntryDTO> entries = flattenPerformedSets(trainingTemplate, performedSets);
         
         TrainingHistory history = TrainingHistory.builder()
             .routineInstance(instance)
@@ -127,8 +312,167 @@ public class RoutineInstanceService
             .executionDateTime(LocalDateTime.now())
             .studentNotes(studentNotes)
             .build();
+
+        applySetLog(history, entries);
             
-        return trainingHistoryRepository.save(history);
+        TrainingHistory saved = trainingHistoryRepository.save(history);
+        recordSessionSummaries(instance.getId(), instance.getStudent().getId(), trainingTemplate, saved.getExecutionDateTime(), entries);
+        personalRecordService.evaluateSession(instance.getStudent().getId(), instance.getRoutine().getCreator().getId(),
+            trainingTemplate.getTrainingSets(), entries);
+
+        return saved;
+    }
+
+    /**
+     * Sincroniza em lote as sessões registradas offline pelo aluno. A posse das instâncias e a pertinência
+     * dos treinos são validadas em uma consulta para o lote todo; as sessões válidas são inseridas com
+     * JDBC batch, ignorando (ON CONFLICT DO NOTHING) as chaves de cliente já gravadas em envios anteriores.
+     * @return Chaves aceitas, duplicadas e rejeitadas (com motivo).
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o tamanho máximo.
+     */
+    @Transactional
+    public TrainingSyncResultDTO syncTrainingLogs(Long studentUserId, List<TrainingSyncItemDTO> sessions)
+    {
+        if (sessions == null || sessions.isEmpty() || sessions.size() > MAX_SYNC_BATCH_SIZE)
+            throw new IllegalArgumentException("O lote deve ter entre 1 e " + MAX_SYNC_BATCH_SIZE + " sessões.");
+
+        Set<Long> instanceIds = new HashSet<>();
+        Set<Long> trainingIds = new HashSet<>();
+        for (TrainingSyncItemDTO session : sessions)
+        {
+            if (session.getRoutineInstanceId() != null)
+                instanceIds.add(session.getRoutineInstanceId());
+            if (session.getTrainingId() != null)
+                trainingIds.add(session.getTrainingId());
+        }
+
+        // (instância -> treinos da rotina) e (instância -> autor), só para instâncias do aluno
+        Map<Long, Set<Long>> trainingsByInstance = new HashMap<>();
+        Map<Long, Long> coachByInstance = new HashMap<>();
+        for (InstanceTrainingView view : routineInstanceRepository.findTrainingsOfStudentInstances(studentUserId, instanceIds))
+        {
+            trainingsByInstance.computeIfAbsent(view.getInstanceId(), id -> new HashSet<>()).add(view.getTrainingId());
+            coachByInstance.put(view.getInstanceId(), view.getCoachId());
+        }
+
+        Map<Long, Training> templates = trainingService.getTrainingsByIds(trainingIds);
+        LocalDateTime latestAccepted = LocalDateTime.now().plus(SYNC_CLOCK_SKEW);
+
+        List<TrainingSyncItemDTO> valid = new ArrayList<>();
+        List<TrainingHistory> histories = new ArrayList<>();
+        List<List<SetLogEntryDTO>> entriesOfValid = new ArrayList<>();
+        Set<String> seenKeys = new HashSet<>();
+        List<String> duplicateKeys = new ArrayList<>();
+        Map<String, String> rejected = new LinkedHashMap<>();
+
+        for (TrainingSyncItemDTO session : sessions)
+        {
+            String clientKey = session.getClientKey();
+
+            if (clientKey == null || clientKey.isBlank() || clientKey.length() > MAX_CLIENT_KEY_LENGTH)
+            {
+                rejected.put(String.valueOf(clientKey), "Chave de cliente ausente ou com mais de " + MAX_CLIENT_KEY_LENGTH + " caracteres.");
+                continue;
+            }
+            if (!seenKeys.add(session.getRoutineInstanceId() + ":" + clientKey))
+            {
+                duplicateKeys.add(clientKey);
+                continue;
+            }
+
+            Set<Long> routineTrainings = trainingsByInstance.get(session.getRoutineInstanceId());
+            if (routineTrainings == null)
+            {
+                rejected.put(clientKey, "Instância de rotina não encontrada ou de outro aluno.");
+                continue;
+            }
+
+            Training template = templates.get(session.getTrainingId());
+            if (template == null || !routineTrainings.contains(template.getId()))
+            {
+                rejected.put(clientKey, "O treino não pertence à rotina da instância.");
+                continue;
+            }
+
+            LocalDateTime executedAt = session.getExecutedAt() != null ? session.getExecutedAt() : LocalDateTime.now();
+            if (executedAt.isAfter(latestAccepted))
+            {
+                rejected.put(clientKey, "Data de execução no futuro.");
+                continue;
+            }
+
+            List<SetLogEntryDTO> entries;
+            TrainingHistory history = TrainingHistory.builder()
+                .executionDateTime(executedAt)
+                .studentNotes(session.getNotes())
+                .clientKey(clientKey)
+                .build();
+            try
+            {
+                entries = flattenPerformedSets(template, session.getPerformedSets());
+                applySetLog(history, entries);
+            }
+            catch (IllegalArgumentException e)
+            {
+                rejected.put(clientKey, e.getMessage());
+                continue;
+            }
+
+            valid.add(session);
+            histories.add(history);
+            entriesOfValid.add(entries);
+        }
+
+        List<String> acceptedKeys = new ArrayList<>();
+        if (!valid.isEmpty())
+        {
+            List<Object[]> rows = new ArrayList<>(valid.size());
+            for (int i = 0; i < valid.size(); i++)
+            {
+                TrainingHistory history = histories.get(i);
+                rows.add(new Object[] {
+                    valid.get(i).getRoutineInstanceId(), valid.get(i).getTrainingId(), Timestamp.valueOf(history.getExecutionDateTime()),
+                    history.getStudentNotes(), history.getSetLog(), history.getLoggedSets(), history.getTotalRepetitions(),
+                    history.getTotalVolumeKg(), history.getClientKey() });
+            }
+
+            int[] inserted = jdbcTemplate.batchUpdate(
+                "INSERT INTO training_history (routine_instance_id, training_template_id, execution_date_time, student_notes, " +
+                "set_log, logged_sets, total_repetitions, total_volume_kg, client_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT (routine_instance_id, client_key) DO NOTHING",
+                rows);
+
+            List<PersonalRecordService.SessionSets> recordSessions = new ArrayList<>(valid.size());
+            for (int i = 0; i < valid.size(); i++)
+            {
+                TrainingSyncItemDTO session = valid.get(i);
+                if (inserted[i] == 0)
+                {
+                    duplicateKeys.add(session.getClientKey());
+                    continue;
+                }
+
+                Training template = templates.get(session.getTrainingId());
+                LocalDateTime executedAt = histories.get(i).getExecutionDateTime();
+
+                acceptedKeys.add(session.getClientKey());
+                recordSessionSummaries(session.getRoutineInstanceId(), studentUserId, template, executedAt, entriesOfValid.get(i));
+                recordSessions.add(new PersonalRecordService.SessionSets(
+                    coachByInstance.get(session.getRoutineInstanceId()), executedAt, template.getTrainingSets(), entriesOfValid.get(i)));
+            }
+
+            // Recordes avaliados uma vez para o lote, em ordem de execução, com uma única notificação
+            personalRecordService.evaluateSessions(studentUserId, recordSessions);
+        }
+
+        System.out.println("[SYNC] Aluno " + studentUserId + ": " + acceptedKeys.size() + " sessões gravadas, "
+            + duplicateKeys.size() + " duplicadas, " + rejected.size() + " rejeitadas.");
+
+        return TrainingSyncResultDTO.builder()
+            .acceptedKeys(acceptedKeys)
+            .duplicateKeys(duplicateKeys)
+            .rejected(rejected)
+            .build();
     }
 
     /*
@@ -147,16 +491,50 @@ public class RoutineInstanceService
     }
 
     /**
-     * Busca todas as instâncias de rotina ativas para um aluno logado (RF06).
+     * Busca as rotinas vigentes hoje para um aluno logado (RF06), já com nome, nível e autor.
+     * Instâncias encerradas ficam no arquivo (listArchivedRoutinesByStudent).
      */
-    public List<RoutineInstance> getActiveRoutinesByStudent(Long studentUserId)
+    public List<RoutineInstanceSummaryDTO> getActiveRoutinesByStudent(Long studentUserId)
     {
-        Student student = studentService.getStudentById(studentUserId);
-        return routineInstanceRepository.findByStudent(student);
+        return routineInstanceRepository.findActiveSummariesByStudentId(studentUserId, LocalDate.now());
+    }
+
+    /**
+     * Página do arquivo de rotinas encerradas do aluno, da mais recente para a mais antiga.
+     * @param cursorDate endDate do último item da página anterior (nulo na primeira página).
+     * @param cursorId ID da instância do último item da página anterior (nulo na primeira página).
+     */
+    public RoutineInstancePageDTO listArchivedRoutinesByStudent(Long studentUserId, LocalDate cursorDate, Long cursorId, int pageSize)
+    {
+        if (pageSize < 1 || pageSize > MAX_ARCHIVE_PAGE_SIZE)
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_ARCHIVE_PAGE_SIZE + ".");
+
+        LocalDate today = LocalDate.now();
+
+        // Sentinelas da primeira página: toda instância encerrada fica "antes" do cursor
+        boolean firstPage = cursorDate == null || cursorId == null;
+
+        List<RoutineInstanceSummaryDTO> rows = routineInstanceRepository.findArchivedSummariesByStudentId(
+            studentUserId,
+            today,
+            firstPage ? today : cursorDate,
+            firstPage ? Long.MAX_VALUE : cursorId,
+            Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<RoutineInstanceSummaryDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        RoutineInstanceSummaryDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return RoutineInstancePageDTO.builder()
+            .items(items)
+            .hasMore(hasMore)
+            .nextCursorDate(hasMore ? last.getEndDate() : null)
+            .nextCursorId(hasMore ? last.getInstanceId() : null)
+            .build();
     }
 
     /**
-     * Busca uma instância de rotina específica, ativa, que liga o aluno a um template de rotina.
+     * Busca a instância vigente hoje que liga o aluno a um template de rotina.
      * @param student O Aluno.
      * @param routine O Template de Rotina.
      * @return A instância ativa, se encontrada.
@@ -164,15 +542,236 @@ public class RoutineInstanceService
     public RoutineInstance getActiveRoutineInstance(Student student, Routine routine)
     throws ResourceNotFoundException
     {
-        return routineInstanceRepository.findByStudentAndRoutine(student, routine)
+        return routineInstanceRepository.findActiveByStudentIdAndRoutineId(student.getId(), routine.getId(), LocalDate.now(), Limit.of(1))
+            .stream()
+            .findFirst()
             .orElseThrow(() -> new ResourceNotFoundException("Instância de Rotina não encontrada.")); 
     }
 
     /**
-     * Busca o histórico de execução de treinos para uma instância específica.
+     * Página do histórico de execução de uma instância, do mais recente para o mais antigo,
+     * paginada por chave em (executionDateTime, id).
+     * @param cursorDate executionDateTime do último item da página anterior (nulo na primeira página).
+     * @param cursorId ID do último item da página anterior (nulo na primeira página).
      */
-    public List<TrainingHistory> getHistoryByRoutineInstance(Long routineInstanceId)
+    public TrainingHistoryPageDTO getHistoryPageByRoutineInstance(Long routineInstanceId, LocalDateTime cursorDate, Long cursorId, int pageSize)
+    {
+        if (pageSize < 1 || pageSize > MAX_HISTORY_PAGE_SIZE)
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_HISTORY_PAGE_SIZE + ".");
+
+        // Sentinelas da primeira página: todo registro fica "antes" do cursor
+        boolean firstPage = cursorDate == null || cursorId == null;
+
+        List<TrainingHistoryItemDTO> rows = trainingHistoryRepository.findPageByRoutineInstanceId(
+            routineInstanceId,
+            firstPage ? HISTORY_FIRST_PAGE_CURSOR_DATE : cursorDate,
+            firstPage ? Long.MAX_VALUE : cursorId,
+            Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TrainingHistoryItemDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        TrainingHistoryItemDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        return TrainingHistoryPageDTO.builder()
+            .items(items)
+            .hasMore(hasMore)
+            .nextCursorDate(hasMore ? last.getExecutionDateTime() : null)
+            .nextCursorId(hasMore ? last.getId() : null)
+            .build();
+    }
+
+    /**
+     * Resumo da instância (total de sessões, última sessão e sessões por treino), lido do rollup
+     * mantido em logTrainingExecution, sem percorrer o histórico.
+     */
+    public RoutineInstanceRollupDTO getRollupByRoutineInstance(Long routineInstanceId)
+    {
+        List<TrainingSessionSummaryDTO> trainings = rollupRepository.findSummariesByRoutineInstanceId(routineInstanceId);
+
+        long totalSessions = 0;
+        LocalDateTime lastSessionAt = null;
+        for (TrainingSessionSummaryDTO training : trainings)
+        {
+            totalSessions += training.getSessions();
+            if (lastSessionAt == null || (training.getLastSessionAt() != null && training.getLastSessionAt().isAfter(lastSessionAt)))
+                lastSessionAt = training.getLastSessionAt();
+        }
+
+        return RoutineInstanceRollupDTO.builder()
+            .totalSessions(totalSessions)
+            .lastSessionAt(lastSessionAt)
+            .trainings(trainings)
+            .build();
+    }
+
+    /**
+     * Garante que a instância pertence ao aluno.
+     * @throws SecurityException se não existir ou for de outro aluno.
+     */
+    public void requireInstanceOfStudent(Long routineInstanceId, Long studentUserId) throws SecurityException
+    {
+        if (!routineInstanceRepository.existsByIdAndStudentId(routineInstanceId, studentUserId))
+            throw new SecurityException("Instância de rotina não encontrada ou você não tem permissão para acessá-la.");
+    }
+
+    /**
+     * Roster de aderência: instâncias ativas na data das rotinas do profissional, da menor para a maior aderência.
+     */
+    public List<AdherenceRosterItemDTO> getAdherenceRosterByProfessional(Long professionalUserId, LocalDate date)
+    {
+        return routineInstanceRepository.findAdherenceRosterByProfessionalId(professionalUserId, date);
+    }
+
+    /**
+     * Séries registradas em uma sessão do aluno, decodificadas do blob e com o exercício resolvido pelo template.
+     * @throws ResourceNotFoundException se o registro não existir ou for de outro aluno.
+     */
+    @Transactional(readOnly = true)
+    public List<SetLogEntryDTO> getSetLog(Long trainingHistoryId, Long studentUserId) throws ResourceNotFoundException
+    {
+        TrainingHistory history = trainingHistoryRepository.findByIdAndRoutineInstanceStudentId(trainingHistoryId, studentUserId)
+            .orElseThrow(() -> new ResourceNotFoundException("Registro de treino de id '" + trainingHistoryId + "' não encontrado."));
+
+        return readSetLog(history);
+    }
+
+    /**
+     * Totais de séries, repetições e volume por treino de um aluno no período [from, to).
+     */
+    public List<SetLogAggregateDTO> aggregateSetLogsByStudent(Long studentUserId, LocalDateTime from, LocalDateTime to)
+    {
+        return trainingHistoryRepository.aggregateSetLogsByStudent(studentUserId, from, to);
+    }
+
+    /*
+     * MANUTENÇÃO
+     */
+
+    /**
+     * Carga inicial dos rollups a partir do histórico, quando ainda não existem
+     * (primeira execução ou após a fusão de templates de treino esvaziar a tabela).
+     * @return Quantas linhas de rollup foram gravadas.
+     */
+    @Transactional
+    public int backfillSessionRollups()
+    {
+        if (rollupRepository.count() > 0 || trainingHistoryRepository.count() == 0)
+            return 0;
+
+        return rollupRepository.rebuildFromHistory();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    /**
+     * Decodifica o set_log de um registro já carregado, resolvendo o exerciseId de cada série.
+     */
+    private List<SetLogEntryDTO> readSetLog(TrainingHistory history)
+    {
+        List<SetLogEntryDTO> entries = SetLogCodec.decode(history.getSetLog());
+        if (entries.isEmpty())
+            return entries;
+
+        List<TrainingSet> templateSets = history.getTraining().getTrainingSets();
+        for (SetLogEntryDTO entry : entries)
+            if (entry.getTrainingSetIndex() < templateSets.size())
+                entry.setExerciseId(templateSets.get(entry.getTrainingSetIndex()).getExerciseId());
+
+        return entries;
+    }
+
+    /**
+     * Grava no registro o set_log codificado e os totais da sessão (séries, repetições e volume).
+     */
+    private void applySetLog(TrainingHistory history, List<SetLogEntryDTO> entries)
+    {
+        if (entries.isEmpty())
+            return;
+
+        int totalRepetitions = 0;
+        double totalVolumeKg = 0;
+        for (SetLogEntryDTO entry : entries)
+        {
+            if (entry.getRepetitions() == null)
+                continue;
+
+            totalRepetitions += entry.getRepetitions();
+            if (entry.getLoadInKg() != null)
+                totalVolumeKg += entry.getRepetitions() * (double) entry.getLoadInKg();
+        }
+
+        history.setSetLog(SetLogCodec.encode(entries));
+        history.setLoggedSets(entries.size());
+        history.setTotalRepetitions(totalRepetitions);
+        history.setTotalVolumeKg(totalVolumeKg);
+    }
+
+    /**
+     * Atualiza os resumos derivados de uma sessão gravada: rollup da instância e volume semanal.
+     * Os recordes pessoais são avaliados à parte, para que um lote seja comparado em ordem de execução.
+     */
+    private void recordSessionSummaries(Long routineInstanceId, Long studentUserId, Training template,
+                                        LocalDateTime executedAt, List<SetLogEntryDTO> entries)
+    {
+        rollupRepository.incrementSessions(routineInstanceId, template.getId(), executedAt);
+        routineInstanceRepository.incrementCompletedSessions(routineInstanceId);
+        studentService.recordTrainingActivity(studentUserId, executedAt);
+        trainingVolumeService.recordSession(studentUserId, executedAt, template.getTrainingSets(), entries);
+    }
+
+    /**
+     * Achata as linhas do formulário em uma série por posição, descartando séries em branco.
+     * @throws IllegalArgumentException se a linha apontar para uma TrainingSet inexistente no treino.
+     */
+    private List<SetLogEntryDTO> flattenPerformedSets(Training training, List<PerformedSetsDTO> performedSets)
+    {
+        List<SetLogEntryDTO> entries = new ArrayList<>();
+        if (performedSets == null)
+            return entries;
+
+        int templateSets = training.getTrainingSets() == null ? 0 : training.getTrainingSets().size();
+
+        for (PerformedSetsDTO row : performedSets)
+        {
+            if (row == null)
+                continue;
+
+            Integer index = row.getTrainingSetIndex();
+            if (index == null || index < 0 || index >= templateSets)
+                throw new IllegalArgumentException("Série informada não pertence a este treino.");
+
+            int count = Math.max(sizeOf(row.getRepetitions()), Math.max(sizeOf(row.getLoadsInKg()), sizeOf(row.getDurationsSeconds())));
+
+            for (int k = 0; k < count; k++)
+            {
+                Integer repetitions = valueAt(row.getRepetitions(), k);
+                Float loadInKg = valueAt(row.getLoadsInKg(), k);
+                Integer durationSeconds = valueAt(row.getDurationsSeconds(), k);
+
+                if (repetitions == null && loadInKg == null && durationSeconds == null)
+                    continue;
+
+                entries.add(SetLogEntryDTO.builder()
+                    .trainingSetIndex(index)
+                    .repetitions(repetitions)
+                    .loadInKg(loadInKg)
+                    .durationSeconds(durationSeconds)
+                    .build());
+            }
+        }
+
+        return entries;
+    }
+
+    private int sizeOf(List<?> values)
+    {
+        return values == null ? 0 : values.size();
+    }
+
+    private <T> T valueAt(List<T> values, int index)
     {
-        return trainingHistoryRepository.findByRoutineInstanceIdOrderByExecutionDateTimeDesc(routineInstanceId);
+        return values != null && index < values.size() ? values.get(index) : null;
     }
 }
\ No newline at end of file
@@ -1,8 +1,7 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
-import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
+import com.ThimoteoConsultorias.Consulthi.dto.LinkEscalationReportDTO;
 import com.ThimoteoConsultorias.Consulthi.model.InactivationScheduling;
-import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
 import com.ThimoteoConsultorias.Consulthi.model.User;
 import com.ThimoteoConsultorias.Consulthi.repository.InactivationSchedulingRepository;
 import com.ThimoteoConsultorias.Consulthi.repository.UserRepository;
@@ -12,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.EnumSet;
 import java.util.List;
 
 @Service
@@ -25,6 +23,7 @@ public class SchedulerService
     private final NotificationService notificationService; 
     private final StudentProfessionalLinkService linkService; 
     private final UserRepository userRepository;
+    private final InactiveStudentService inactiveStudentService;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
@@ -34,13 +33,15 @@ public class SchedulerService
         InactivationSchedulingRepository inactivationSchedulingRepository,
         NotificationService notificationService,
         StudentProfessionalLinkService linkService,
-        UserRepository userRepository
+        UserRepository userRepository,
+        InactiveStudentService inactiveStudentService
     )
     {
         this.userRepository = userRepository;
         this.linkService = linkService;
         this.notificationService = notificationService;
         this.inactivationSchedulingRepository = inactivationSchedulingRepository;
+        this.inactiveStudentService = inactiveStudentService;
     }
 
     // ----------------------------------------------------
@@ -69,6 +70,9 @@ public class SchedulerService
         // RF04/RF08: Excluir usuários desativados há mais de 1 mês.
         processDeactivationCleanup(); 
 
+        // Avisar profissionais sobre alunos sem treinar há mais de N dias (lotes em transações próprias).
+        inactiveStudentService.processInactiveStudents();
+
         System.out.println("--- SCHEDULER: Regras processadas. ---");
     }
 
@@ -106,16 +110,10 @@ public class SchedulerService
      */
     private void processExpiredPendingLinks()
     {
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        
-        List<StudentProfessionalLink> expiredLinks = 
-            linkService.getLinksByStatusAndDateRequestBefore(EnumSet.of(LinkStatus.PENDING), oneMonthAgo);
+        int deleted = linkService.deleteExpiredPendingLinks();
 
-        if (!expiredLinks.isEmpty())
-        {
-            linkService.deleteAll(expiredLinks);
-            System.out.println("Scheduler: Deletados " + expiredLinks.size() + " links PENDING expirados (1 mês - RF01).");
-        }
+        if (deleted > 0)
+            System.out.println("Scheduler: Deletados " + deleted + " links PENDING expirados (1 mês - RF01).");
     }
 
     /**
@@ -123,15 +121,10 @@ public class SchedulerService
      */
     private void processAdminEscalation()
     {
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<StudentProfessionalLink> escalationLinks = linkService.getLinksByStatusAndDateRequestBefore(EnumSet.of(LinkStatus.PENDING), oneWeekAgo);
+        LinkEscalationReportDTO report = linkService.escalateOldPendingLinksToAdmin();
 
-        if (!escalationLinks.isEmpty())
-        {
-            System.out.println("Scheduler: " + escalationLinks.size() + " solicitações de alunos com mais de 1 semana. Notificando Admin.");
-            notificationService.notifyAdminOfEscalation(escalationLinks.size());
-        }
+        if (report.getPendingCount() > 0)
+            System.out.println("Scheduler: " + report.getPendingCount() + " solicitações de alunos com mais de 1 semana. Admin notificado.");
     }
 
     /**
@@ -147,7 +140,9 @@ public class SchedulerService
             System.out.println("Scheduler: Encontrados " + pendingDeletions.size() + " usuários para exclusão permanente (RF04/RF08).");
             
             pendingDeletions.forEach(schedule -> {
+                linkService.recordLinkRemovalsOfUser(schedule.getUser().getId());
                 userRepository.delete(schedule.getUser()); 
+                linkService.evictActiveLinksOfRemovedUser(schedule.getUser());
                 
                 schedule.setDateActualDeletion(now);
                 inactivationSchedulingRepository.save(schedule);
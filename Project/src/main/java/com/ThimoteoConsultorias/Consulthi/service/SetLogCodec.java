@@ -0,0 +1,132 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificação compacta das séries executadas em uma sessão (coluna training_history.set_log).
+ * Formato: versão (1 byte), quantidade de séries (varint) e, por série, o índice da TrainingSet
+ * no template (varint), um byte de presença (bit 0 reps, bit 1 carga, bit 2 duração) e os campos
+ * presentes como varints. A carga é gravada em centésimos de kg.
+ * Uma sessão típica (15–25 séries) ocupa poucas dezenas de bytes, em vez de uma linha por série.
+ */
+final class SetLogCodec
+{
+    private static final byte VERSION = 1;
+
+    private static final int HAS_REPETITIONS = 1;
+    private static final int HAS_LOAD = 1 << 1;
+    private static final int HAS_DURATION = 1 << 2;
+
+    private SetLogCodec() {}
+
+    /**
+     * Codifica as séries na ordem informada; valores negativos são rejeitados.
+     */
+    static byte[] encode(List<SetLogEntryDTO> entries)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + entries.size() * 6);
+        out.write(VERSION);
+        writeVarint(out, entries.size());
+
+        for (SetLogEntryDTO entry : entries)
+        {
+            int flags = (entry.getRepetitions() != null ? HAS_REPETITIONS : 0)
+                | (entry.getLoadInKg() != null ? HAS_LOAD : 0)
+                | (entry.getDurationSeconds() != null ? HAS_DURATION : 0);
+
+            writeVarint(out, entry.getTrainingSetIndex());
+            out.write(flags);
+
+            if (entry.getRepetitions() != null)
+                writeVarint(out, entry.getRepetitions());
+            if (entry.getLoadInKg() != null)
+                writeVarint(out, Math.round(entry.getLoadInKg() * 100));
+            if (entry.getDurationSeconds() != null)
+                writeVarint(out, entry.getDurationSeconds());
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica o blob; o exerciseId não é gravado e fica a cargo do chamador (via template).
+     */
+    static List<SetLogEntryDTO> decode(byte[] data)
+    {
+        if (data == null || data.length == 0)
+            return new ArrayList<>();
+
+        Reader reader = new Reader(data);
+
+        byte version = (byte) reader.readByte();
+        if (version != VERSION)
+            throw new IllegalStateException("Versão de set_log desconhecida: " + version);
+
+        int count = reader.readVarint();
+        List<SetLogEntryDTO> entries = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            int trainingSetIndex = reader.readVarint();
+            int flags = reader.readByte();
+
+            entries.add(SetLogEntryDTO.builder()
+                .trainingSetIndex(trainingSetIndex)
+                .repetitions((flags & HAS_REPETITIONS) != 0 ? reader.readVarint() : null)
+                .loadInKg((flags & HAS_LOAD) != 0 ? reader.readVarint() / 100f : null)
+                .durationSeconds((flags & HAS_DURATION) != 0 ? reader.readVarint() : null)
+                .build());
+        }
+
+        return entries;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value)
+    {
+        if (value < 0)
+            throw new IllegalArgumentException("Valores de série não podem ser negativos.");
+
+        while ((value & ~0x7F) != 0)
+        {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static final class Reader
+    {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data)
+        {
+            this.data = data;
+        }
+
+        int readByte()
+        {
+            if (position >= data.length)
+                throw new IllegalStateException("set_log truncado.");
+
+            return data[position++] & 0xFF;
+        }
+
+        int readVarint()
+        {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7)
+            {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return value;
+            }
+            throw new IllegalStateException("Varint inválido em set_log.");
+        }
+    }
+}
@@ -1,20 +1,39 @@
 package com.ThimoteoConsultorias.Consulthi.service;
 
+import com.ThimoteoConsultorias.Consulthi.config.AfterCommitExecutor;
+import com.ThimoteoConsultorias.Consulthi.dto.LinkEscalationReportDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.ProfessionalBacklogDTO;
 import com.ThimoteoConsultorias.Consulthi.enums.LinkStatus;
+import com.ThimoteoConsultorias.Consulthi.enums.Role;
 import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.Professional;
 import com.ThimoteoConsultorias.Consulthi.model.Student;
 import com.ThimoteoConsultorias.Consulthi.model.StudentProfessionalLink;
+import com.ThimoteoConsultorias.Consulthi.model.LinkStatusTransition;
 import com.ThimoteoConsultorias.Consulthi.model.User;
+import com.ThimoteoConsultorias.Consulthi.repository.LinkStatusTransitionRepository;
 import com.ThimoteoConsultorias.Consulthi.repository.StudentProfessionalLinkRepository;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentProfessionalLinkRepository.LinkBacklogSummaryView;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentProfessionalLinkRepository.LinkChangeView;
+import com.ThimoteoConsultorias.Consulthi.repository.StudentProfessionalLinkRepository.StudentProfessionalPair;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 //@Lazy
 @Service
@@ -23,11 +42,33 @@ public class StudentProfessionalLinkService
     // ----------------------------------------------------
     // 1. DEPENDÊNCIAS
     // ----------------------------------------------------
+
+    /** Máximo de vínculos por operação em lote. */
+    public static final int MAX_BULK_LINKS = 500;
+
+    /** Profissionais listados no relatório de escalada. */
+    private static final int ESCALATION_TOP_PROFESSIONALS = 5;
+
+    /** Links PENDING expirados removidos por transação. */
+    private static final int EXPIRY_BATCH_SIZE = 1000;
+
+    /** Autor das transições feitas pelo agendador. */
+    private static final Long SYSTEM_ACTOR = 0L;
+
+    private static final String INSERT_TRANSITION =
+        "INSERT INTO link_status_transition (link_id, student_id, professional_id, from_status, to_status, actor_user_id, occurred_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     private final StudentProfessionalLinkRepository linkRepository;
+    private final LinkStatusTransitionRepository transitionRepository;
     private final LoggerService loggerService;
     private final NotificationService notificationService;
     private final ProfessionalService professionalService;
     private final UserService userService;
+    private final ActiveLinkCache activeLinkCache;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final TransactionTemplate batchTransaction;
+    private final JdbcTemplate jdbcTemplate;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
@@ -35,17 +76,28 @@ public class StudentProfessionalLinkService
     public StudentProfessionalLinkService
     (
         StudentProfessionalLinkRepository linkRepository,
+        LinkStatusTransitionRepository transitionRepository,
         LoggerService loggerService,
         NotificationService notificationService,
         ProfessionalService professionalService,
-        UserService userService
+        UserService userService,
+        ActiveLinkCache activeLinkCache,
+        AfterCommitExecutor afterCommitExecutor,
+        PlatformTransactionManager transactionManager,
+        JdbcTemplate jdbcTemplate
     )
     {
         this.linkRepository = linkRepository;
+        this.transitionRepository = transitionRepository;
         this.loggerService = loggerService;
         this.notificationService = notificationService;
         this.professionalService = professionalService;
         this.userService = userService;
+        this.activeLinkCache = activeLinkCache;
+        this.afterCommitExecutor = afterCommitExecutor;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     // ----------------------------------------------------
@@ -72,7 +124,8 @@ public class StudentProfessionalLinkService
                 .dateRequest(LocalDateTime.now())
                 .build();
             
-            linkRepository.save(link);
+            StudentProfessionalLink savedLink = linkRepository.save(link);
+            recordTransition(savedLink.getId(), student.getId(), professionalId, null, LinkStatus.PENDING, student.getId());
             
             notificationService.notifyProfessionalOfNewStudent(professionalId, student.getUser().getId());
         }
@@ -103,6 +156,12 @@ public class StudentProfessionalLinkService
     { return linkRepository.findByStudentAndStatusIn(student, status); }
     public List<StudentProfessionalLink> getLinksByStatusAndDateRequestBefore(Collection<LinkStatus> status, LocalDateTime dateTime)
     { return linkRepository.findByStatusInAndDateRequestBefore(status, dateTime); }
+    public List<Long> getProfessionalIdsByStudentAndStatusIn(Long studentUserId, Collection<LinkStatus> status)
+    { return linkRepository.findProfessionalIdsByStudentIdAndStatusIn(studentUserId, status); }
+    public List<Long> getStudentIdsByProfessionalAndStatusIn(Long professionalUserId, Collection<Long> studentUserIds, Collection<LinkStatus> status)
+    { return linkRepository.findStudentIdsByProfessionalIdAndStudentIdInAndStatusIn(professionalUserId, studentUserIds, status); }
+    public List<StudentProfessionalPair> getPairsByStudentsAndStatusIn(Collection<Long> studentUserIds, Collection<LinkStatus> status)
+    { return linkRepository.findPairsByStudentIdInAndStatusIn(studentUserIds, status); }
     public long countByStudentAndStatusIn(Student student, Collection<LinkStatus> status)
     { return linkRepository.countByStudentAndStatusIn(student, status); }
     public long countByStudentUserIdAndProfessionalUserIdAndStatusIn(Long studentUserId, Long professionalUserId, Collection<LinkStatus> status)
@@ -110,15 +169,29 @@ public class StudentProfessionalLinkService
 
     /**
      * Implementa a verificação de vínculo ativo (ACCEPTED) para acesso ao conteúdo (RF06).
+     * Resolvida pelo cache de vínculos ativos do aluno, sem ida ao banco quando aquecido.
      */
     public boolean isActiveLink(Long studentUserId, Long professionalUserId)
     {
-        long count = countByStudentUserIdAndProfessionalUserIdAndStatusIn(
-            studentUserId,
-            professionalUserId,
-            EnumSet.of(LinkStatus.ACCEPTED)
-        );
-        return count > 0;
+        return Arrays.binarySearch(getActiveProfessionalIds(studentUserId), professionalUserId) >= 0;
+    }
+
+    /**
+     * IDs (ordenados) dos profissionais com vínculo ACCEPTED com o aluno, via cache.
+     * O array é compartilhado e não deve ser alterado.
+     */
+    public long[] getActiveProfessionalIds(Long studentUserId)
+    {
+        return activeLinkCache.get(studentUserId,
+            () -> getProfessionalIdsByStudentAndStatusIn(studentUserId, EnumSet.of(LinkStatus.ACCEPTED)));
+    }
+
+    /**
+     * Histórico (somente inserção) das transições de status de um link, da mais antiga à mais recente.
+     */
+    public List<LinkStatusTransition> getTransitionHistory(Long linkId)
+    {
+        return transitionRepository.findByLinkIdOrderByOccurredAtAscIdAsc(linkId);
     }
 
     /*
@@ -127,33 +200,87 @@ public class StudentProfessionalLinkService
 
     /**
      * Implementa a aceitação da solicitação de um aluno por um profissional.
-     * RF01: Ativa o usuário se for o primeiro link aceito.
+     * A transição é atômica (UPDATE ... WHERE status = PENDING), sem leitura prévia do status:
+     * de dois aceites concorrentes do mesmo link, só um vence.
+     * RF01: Ativa o usuário se for o primeiro link aceito. A ativação também é condicional
+     * (aluno inativo e sem outro vínculo ACCEPTED), e a trava de linha do UPDATE em app_user
+     * garante uma única ativação quando dois profissionais aceitam o mesmo aluno ao mesmo tempo.
      * @throws IllegalStateException se o status não for PENDING.
      */
     @Transactional
-    public StudentProfessionalLink acceptLink(Long linkId, Long professionalId)
+    public void acceptLink(Long linkId, Long professionalId)
     {
-        StudentProfessionalLink link = getLinksById(linkId);
+        StudentProfessionalPair pair = linkRepository.findPairById(linkId)
+            .orElseThrow(() -> new ResourceNotFoundException("Link de id '" + linkId +"' não encontrado."));
         
-        if (!link.getProfessional().getUser().getId().equals(professionalId))
+        if (!pair.getProfessionalId().equals(professionalId))
             throw new SecurityException("Ação não autorizada.");
-        
-        if (link.getStatus() == LinkStatus.PENDING)
-        {
-            link.setStatus(LinkStatus.ACCEPTED);
-            StudentProfessionalLink savedLink = linkRepository.save(link);
-
-            long acceptedLinksCount = linkRepository.countByStudentAndStatusIn(link.getStudent(), EnumSet.of(LinkStatus.ACCEPTED));
-            
-            // Ativa o usuário se este foi o primeiro link aceito
-            if (acceptedLinksCount == 1) 
-                userService.activateUser(link.getStudent().getUser().getId());
-            
-            notificationService.notifyProfessionalOfLinkAcceptance(professionalId, link.getStudent().getUser().getId());
 
-            return savedLink;
-        } else
+        LinkStatus from = LinkStatus.sourceOf(LinkStatus.ACCEPTED);
+        if (linkRepository.transitionStatus(linkId, from, LinkStatus.ACCEPTED) == 0)
             throw new IllegalStateException("O vínculo não está em status pendente para ser aceito.");
+
+        Long studentId = pair.getStudentId();
+        recordTransition(linkId, studentId, professionalId, from, LinkStatus.ACCEPTED, professionalId);
+
+        userService.activateFirstAcceptedStudents(List.of(studentId), List.of(linkId));
+
+        notificationService.notifyProfessionalOfLinkAcceptance(professionalId, studentId);
+        evictActiveLinksAfterCommit(List.of(studentId));
+    }
+
+    /**
+     * Aceita em lote as solicitações PENDING selecionadas pelo Profissional (RF01).
+     * Posse validada em uma consulta, transição condicional em um UPDATE, alunos da primeira
+     * aceitação ativados em uma instrução e uma única notificação para todos os aceitos.
+     * Links que já não estão PENDING são ignorados.
+     * @return Quantos vínculos foram aceitos.
+     * @throws SecurityException se algum link não pertencer ao Profissional.
+     */
+    @Transactional
+    public int acceptLinks(Collection<Long> linkIds, Long professionalUserId)
+    {
+        Set<Long> ids = requireOwnedLinks(linkIds, professionalUserId);
+
+        LinkStatus from = LinkStatus.sourceOf(LinkStatus.ACCEPTED);
+        List<LinkChangeView> accepted = linkRepository.transitionStatusOfProfessional(
+            ids, professionalUserId, from.name(), LinkStatus.ACCEPTED.name());
+        if (accepted.isEmpty())
+            return 0;
+
+        recordTransitions(accepted, from, LinkStatus.ACCEPTED, professionalUserId);
+
+        List<Long> studentIds = studentIdsOf(accepted);
+        List<Long> acceptedLinkIds = accepted.stream().map(LinkChangeView::getId).toList();
+
+        userService.activateFirstAcceptedStudents(studentIds, acceptedLinkIds);
+        notificationService.notifyStudentsOfLinkAcceptance(userService.getUserById(professionalUserId), studentIds);
+        evictActiveLinksAfterCommit(studentIds);
+
+        return accepted.size();
+    }
+
+    /**
+     * Recusa em lote as solicitações PENDING selecionadas pelo Profissional.
+     * @return Quantos vínculos foram recusados.
+     * @throws SecurityException se algum link não pertencer ao Profissional.
+     */
+    @Transactional
+    public int rejectLinks(Collection<Long> linkIds, Long professionalUserId)
+    {
+        Set<Long> ids = requireOwnedLinks(linkIds, professionalUserId);
+
+        LinkStatus from = LinkStatus.sourceOf(LinkStatus.REJECTED);
+        List<LinkChangeView> rejected = linkRepository.transitionStatusOfProfessional(
+            ids, professionalUserId, from.name(), LinkStatus.REJECTED.name());
+        if (rejected.isEmpty())
+            return 0;
+
+        recordTransitions(rejected, from, LinkStatus.REJECTED, professionalUserId);
+
+        notificationService.notifyStudentsOfLinkRejection(userService.getUserById(professionalUserId), studentIdsOf(rejected));
+
+        return rejected.size();
     }
     
     /*
@@ -167,6 +294,8 @@ public class StudentProfessionalLinkService
     public void delete(StudentProfessionalLink link)
     {
         linkRepository.delete(link);
+        recordRemoval(link, SYSTEM_ACTOR);
+        evictActiveLinksAfterCommit(List.of(link.getStudent().getUser().getId()));
     }
 
     /**
@@ -176,6 +305,8 @@ public class StudentProfessionalLinkService
     public void deleteAll(List<StudentProfessionalLink> links)
     {
         linkRepository.deleteAll(links);
+        links.forEach(link -> recordRemoval(link, SYSTEM_ACTOR));
+        evictActiveLinksAfterCommit(links.stream().map(link -> link.getStudent().getUser().getId()).toList());
     }
     
     /**
@@ -204,6 +335,67 @@ public class StudentProfessionalLinkService
         notificationService.notifyLinkTermination(requesterUser, receavers);
 
         linkRepository.delete(link);
+        recordRemoval(link, requesterUserId);
+        evictActiveLinksAfterCommit(List.of(link.getStudent().getUser().getId()));
+    }
+
+    /**
+     * Remove em lote vínculos ACCEPTED selecionados pelo Profissional (RF05), em um único DELETE,
+     * com uma notificação para todos os alunos afetados.
+     * @return Quantos vínculos foram removidos.
+     * @throws SecurityException se algum link não pertencer ao Profissional.
+     */
+    @Transactional
+    public int removeLinks(Collection<Long> linkIds, Long professionalUserId)
+    {
+        Set<Long> ids = requireOwnedLinks(linkIds, professionalUserId);
+
+        List<LinkChangeView> removed = linkRepository.deleteOfProfessionalWithStatus(ids, professionalUserId, LinkStatus.ACCEPTED.name());
+        if (removed.isEmpty())
+            return 0;
+
+        recordTransitions(removed, LinkStatus.ACCEPTED, null, professionalUserId);
+
+        List<Long> studentIds = studentIdsOf(removed);
+        notificationService.notifyStudentsOfLinkTermination(userService.getUserById(professionalUserId), studentIds);
+        evictActiveLinksAfterCommit(studentIds);
+
+        return removed.size();
+    }
+
+    /*
+     * MANUTENÇÃO
+     */
+
+    /**
+     * Registra no log a remoção de todos os vínculos do usuário, que serão apagados em cascata com ele.
+     * Deve ser chamado na transação da remoção, antes de apagar o usuário.
+     */
+    public void recordLinkRemovalsOfUser(Long userId)
+    {
+        jdbcTemplate.update(
+            "INSERT INTO link_status_transition (link_id, student_id, professional_id, from_status, to_status, actor_user_id, occurred_at) " +
+            "SELECT id, student_id, professional_id, status, NULL, ?, ? FROM student_professional_link " +
+            "WHERE student_id = ? OR professional_id = ?",
+            SYSTEM_ACTOR, Timestamp.valueOf(LocalDateTime.now()), userId, userId);
+    }
+
+    /**
+     * Invalida, após o commit, o cache de vínculos ativos afetado pela remoção de um usuário
+     * (os vínculos são removidos em cascata). Um Profissional afeta alunos desconhecidos: limpa tudo.
+     */
+    public void evictActiveLinksOfRemovedUser(User user)
+    {
+        Long userId = user.getId();
+        boolean professional = user.getRoles().stream().anyMatch(Role::isProfessionalRole);
+
+        afterCommitExecutor.execute(() ->
+        {
+            if (professional)
+                activeLinkCache.invalidateAll();
+            else
+                activeLinkCache.evict(userId);
+        });
     }
     
     // Métodos de agendamento
@@ -212,19 +404,33 @@ public class StudentProfessionalLinkService
      * Implementa o Método para lidar com a regra de 1 mês para solicitações expiradas.
      * Chamado pelo SchedulerService.
      * RF01: Solicitações pendentes por 1 mês são automaticamente deletadas.
+     * A remoção é feita em lotes (DELETE ... RETURNING), cada um na própria transação,
+     * e os IDs de cada lote vão direto para o log de auditoria.
      * @return O número de links deletados.
      */
-    @Transactional
-    public void deleteExpiredPendingLinks()
+    public int deleteExpiredPendingLinks()
     {
         LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        
-        List<StudentProfessionalLink> expiredLinks = getLinksByStatusAndDateRequestBefore(EnumSet.of(LinkStatus.PENDING), oneMonthAgo);
+        int deleted = 0;
 
-        if (expiredLinks.isEmpty())
+        while (true)
         {
-            loggerService.logExpiredLinksDeletion(expiredLinks); 
-            deleteAll(expiredLinks);
+            List<Long> batch = batchTransaction.execute(status ->
+            {
+                List<LinkChangeView> expired = linkRepository
+                    .deleteBatchByStatusAndDateRequestBefore(LinkStatus.PENDING.name(), oneMonthAgo, EXPIRY_BATCH_SIZE);
+                List<Long> ids = expired.stream().map(LinkChangeView::getId).toList();
+
+                // Os links são apagados, não passam a EXPIRED: o log registra a remoção
+                recordTransitions(expired, LinkStatus.PENDING, null, SYSTEM_ACTOR);
+                loggerService.logExpiredLinksDeletion(ids);
+                return ids;
+            });
+
+            deleted += batch.size();
+
+            if (batch.size() < EXPIRY_BATCH_SIZE)
+                return deleted;
         }
     }
 
@@ -232,19 +438,118 @@ public class StudentProfessionalLinkService
      * Implementa o Método para o Admin lidar com solicitações pendentes a 1+ semanas.
      * Chamado pelo SchedulerService.
      * RF01: Repassa solicitações ao Administrador e notifica.
-     * @return O número de links escalados.
+     * O relatório (total, mais antiga e profissionais com maior acúmulo) vem de consultas agregadas;
+     * o detalhe do log de auditoria, de uma única consulta de projeção.
+     * @return O relatório de escalada (pendingCount zero se não houver nada a escalar).
      */
     @Transactional
-    public void escalateOldPendingLinksToAdmin()
+    public LinkEscalationReportDTO escalateOldPendingLinksToAdmin()
     {
         LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-        
-        List<StudentProfessionalLink> escalationLinks = getLinksByStatusAndDateRequestBefore(EnumSet.of(LinkStatus.PENDING), oneWeekAgo);
 
-        if (!escalationLinks.isEmpty())
+        LinkEscalationReportDTO report = getEscalationReport(oneWeekAgo);
+
+        if (report.getPendingCount() > 0)
         {
-            loggerService.logEscalatedLinks(escalationLinks);
-            notificationService.notifyAdminOfEscalation(escalationLinks.size());
+            loggerService.logEscalatedLinks(linkRepository.findEscalationDetails(LinkStatus.PENDING, oneWeekAgo));
+            notificationService.notifyAdminOfEscalation(report);
         }
+
+        return report;
+    }
+
+    /**
+     * Relatório agregado das solicitações PENDING anteriores ao corte.
+     */
+    @Transactional(readOnly = true)
+    public LinkEscalationReportDTO getEscalationReport(LocalDateTime cutoff)
+    {
+        LinkBacklogSummaryView summary = linkRepository.summarizeByStatusAndDateRequestBefore(LinkStatus.PENDING, cutoff);
+        long pendingCount = summary.getPendingCount() == null ? 0 : summary.getPendingCount();
+
+        List<ProfessionalBacklogDTO> topProfessionals = pendingCount == 0
+            ? List.of()
+            : linkRepository.findBacklogByProfessional(LinkStatus.PENDING, cutoff, Limit.of(ESCALATION_TOP_PROFESSIONALS));
+
+        return LinkEscalationReportDTO.builder()
+            .cutoff(cutoff)
+            .pendingCount(pendingCount)
+            .oldestRequest(summary.getOldestRequest())
+            .topProfessionals(topProfessionals)
+            .build();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    /**
+     * Valida a seleção de um lote e a posse de todos os links em uma única consulta.
+     */
+    private Set<Long> requireOwnedLinks(Collection<Long> linkIds, Long professionalUserId)
+    {
+        if (linkIds == null || linkIds.isEmpty())
+            throw new IllegalArgumentException("Nenhum vínculo selecionado.");
+
+        Set<Long> ids = new LinkedHashSet<>(linkIds);
+        if (ids.size() > MAX_BULK_LINKS)
+            throw new IllegalArgumentException("Selecione no máximo " + MAX_BULK_LINKS + " vínculos por vez.");
+
+        if (linkRepository.existsByIdInAndProfessionalIdNot(ids, professionalUserId))
+            throw new SecurityException("Ação não autorizada.");
+
+        return ids;
+    }
+
+    /**
+     * Acrescenta uma transição ao log (toStatus nulo = remoção).
+     */
+    private void recordTransition(Long linkId, Long studentId, Long professionalId, LinkStatus from, LinkStatus to, Long actorUserId)
+    {
+        jdbcTemplate.update(INSERT_TRANSITION,
+            linkId, studentId, professionalId, nameOf(from), nameOf(to), actorUserId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void recordRemoval(StudentProfessionalLink link, Long actorUserId)
+    {
+        recordTransition(link.getId(), link.getStudent().getId(), link.getProfessional().getId(), link.getStatus(), null, actorUserId);
+    }
+
+    /**
+     * Acrescenta ao log, em JDBC batch, as transições de um lote (linhas do RETURNING).
+     */
+    private void recordTransitions(List<LinkChangeView> changes, LinkStatus from, LinkStatus to, Long actorUserId)
+    {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(changes.size());
+
+        for (LinkChangeView change : changes)
+            rows.add(new Object[] {
+                change.getId(), change.getStudentId(), change.getProfessionalId(), nameOf(from), nameOf(to), actorUserId, now });
+
+        if (!rows.isEmpty())
+            jdbcTemplate.batchUpdate(INSERT_TRANSITION, rows);
+    }
+
+    private static String nameOf(LinkStatus status)
+    {
+        return status == null ? null : status.name();
+    }
+
+    private static List<Long> studentIdsOf(List<LinkChangeView> changes)
+    {
+        return changes.stream().map(LinkChangeView::getStudentId).distinct().toList();
+    }
+
+    /**
+     * Agenda a invalidação do cache de vínculos ativos dos alunos informados.
+     */
+    private void evictActiveLinksAfterCommit(Collection<Long> studentUserIds)
+    {
+        List<Long> studentIds = studentUserIds.stream().distinct().toList();
+        if (studentIds.isEmpty())
+            return;
+
+        afterCommitExecutor.execute(() -> studentIds.forEach(activeLinkCache::evict));
     }
-}
\ No newline at end of file
+}
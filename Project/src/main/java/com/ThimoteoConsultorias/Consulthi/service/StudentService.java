@@ -9,6 +9,8 @@ import com.ThimoteoConsultorias.Consulthi.repository.StudentRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 public class StudentService
 {
@@ -74,6 +76,15 @@ public class StudentService
      * UPDATE
      */
 
+    /**
+     * Registra a atividade de treino do aluno (não retrocede se a sessão for mais antiga que a última).
+     */
+    @Transactional
+    public void recordTrainingActivity(Long studentId, LocalDateTime executedAt)
+    {
+        studentRepository.advanceLastTrainingAt(studentId, executedAt);
+    }
+
     /**
      * Atualiza as metas (Goal) de um estudante.
      * @param studentId O ID do estudante.
@@ -0,0 +1,77 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.enums.MuscleGroup;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Hash canônico da estrutura de um treino, usado como endereço do template compartilhado.
+ * A forma canônica é: nome sem espaços nas pontas, grupos musculares ordenados
+ * e séries na ordem da lista, cada campo prefixado pelo tamanho (nulos têm marcador próprio).
+ */
+final class TrainingFingerprint
+{
+    private TrainingFingerprint() {}
+
+    static String of(String name, Collection<MuscleGroup> muscleGroups, List<TrainingSet> trainingSets)
+    {
+        StringBuilder canonical = new StringBuilder(128);
+
+        field(canonical, name == null ? null : name.strip());
+
+        if (muscleGroups != null)
+            muscleGroups.stream()
+                .map(MuscleGroup::name)
+                .sorted()
+                .forEach(group -> field(canonical, group));
+        canonical.append('|');
+
+        if (trainingSets != null)
+        {
+            for (TrainingSet set : trainingSets)
+            {
+                field(canonical, set.getExerciseOrder());
+                field(canonical, set.getExerciseId());
+                field(canonical, set.getSets());
+                field(canonical, set.getRepetitions());
+                field(canonical, set.getRestTimeSeconds());
+                field(canonical, set.getTechnique() == null ? null : set.getTechnique().name());
+                field(canonical, set.getLoadInKg());
+                field(canonical, set.getDurationSeconds());
+                canonical.append(';');
+            }
+        }
+
+        return HexFormat.of().formatHex(sha256(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void field(StringBuilder canonical, Object value)
+    {
+        if (value == null)
+        {
+            canonical.append('~');
+            return;
+        }
+
+        String text = value.toString();
+        canonical.append(text.length()).append(':').append(text);
+    }
+
+    private static byte[] sha256(byte[] bytes)
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
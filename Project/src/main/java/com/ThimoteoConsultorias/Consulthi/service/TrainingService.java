@@ -6,15 +6,20 @@ import com.ThimoteoConsultorias.Consulthi.exception.ResourceNotFoundException;
 import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
 import com.ThimoteoConsultorias.Consulthi.model.Exercise;
 import com.ThimoteoConsultorias.Consulthi.model.Training;
-import com.ThimoteoConsultorias.Consulthi.repository.ExerciseRepository;
 import com.ThimoteoConsultorias.Consulthi.repository.TrainingRepository;
 
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,20 +28,23 @@ public class TrainingService
     // ----------------------------------------------------
     // 1. DEPENDÊNCIAS
     // ----------------------------------------------------
-    private final ExerciseRepository exerciseRepository;
+    private final ExerciseCatalog exerciseCatalog;
     private final TrainingRepository trainingRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     // ----------------------------------------------------
     // 2. CONSTRUTOR
     // ----------------------------------------------------
     public TrainingService
     (
-        ExerciseRepository exerciseRepository,
-        TrainingRepository trainingRepository
+        ExerciseCatalog exerciseCatalog,
+        TrainingRepository trainingRepository,
+        JdbcTemplate jdbcTemplate
     )
     {
-        this.exerciseRepository = exerciseRepository;
+        this.exerciseCatalog = exerciseCatalog;
         this.trainingRepository = trainingRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     // ----------------------------------------------------
@@ -48,24 +56,171 @@ public class TrainingService
      */
 
     /**
-     * Mapeia TrainingDTO para a entidade Treino, convertendo e validando as Séries.
+     * Mapeia TrainingDTO para o template de Treino correspondente, convertendo e validando as Séries.
+     * O chamador passa a deter uma referência ao template retornado.
      * @param dto O DTO contendo os dados do treino.
-     * @return A entidade Treino persistida.
+     * @return O template de Treino persistido (reaproveitado se já existir com a mesma estrutura).
      */
     @Transactional
     public Training createTrainingFromDTO(TrainingDTO dto)
     {
-        List<TrainingSet> sets = dto.getTrainingSets().stream()
-            .map(this::mapTrainingSetDtoToEntity)
-            .collect(Collectors.toList());
-        
-        Training training = Training.builder()
-            .name(dto.getName())
-            .targetMuscleGroups(dto.getTargetMuscleGroups())
-            .trainingSets(sets)
-            .build();
-            
-        return trainingRepository.save(training);
+        return createTrainingsFromDTOs(List.of(dto)).get(0);
+    }
+
+    /**
+     * Resolve os treinos de uma nova rotina para templates compartilhados, validando todos os
+     * exercícios referenciados de uma só vez. Treinos com a mesma estrutura (nome, grupos
+     * musculares e séries em ordem) reaproveitam a mesma linha; cada posição conta uma referência.
+     * @param dtos Os treinos enviados pelo formulário, na ordem desejada.
+     * @return Os templates, na mesma ordem.
+     */
+    @Transactional
+    public List<Training> createTrainingsFromDTOs(List<TrainingDTO> dtos)
+    {
+        if (dtos == null)
+            return new ArrayList<>();
+
+        exerciseCatalog.requireExisting(exerciseIdsOf(dtos));
+
+        List<Training> templates = resolveTemplates(candidatesOf(dtos), new HashMap<>());
+
+        Map<Long, Integer> referenceDeltas = new HashMap<>();
+        for (Training template : templates)
+            referenceDeltas.merge(template.getId(), 1, Integer::sum);
+        applyReferenceDeltas(referenceDeltas);
+
+        return new ArrayList<>(templates);
+    }
+
+    /*
+     * UPDATE
+     */
+
+    /**
+     * Aplica a lista de TrainingDTO sobre os treinos atuais da rotina (copy-on-write).
+     * Templates são imutáveis: um treino alterado passa a apontar para o template da nova
+     * estrutura (existente ou criado), e o antigo perde uma referência, sem afetar outras rotinas.
+     * A lista gerenciada é modificada in-place para que o Hibernate emita só o diff da tabela de junção.
+     * @param currentTrainings A lista gerenciada de treinos da rotina.
+     * @param dtos Os treinos enviados pelo formulário, na ordem desejada.
+     */
+    @Transactional
+    public void mergeTrainings(List<Training> currentTrainings, List<TrainingDTO> dtos)
+    {
+        if (dtos != null)
+            exerciseCatalog.requireExisting(exerciseIdsOf(dtos));
+
+        // Treinos mantidos sem alteração são resolvidos em memória, sem consulta
+        Map<String, Training> knownByHash = new HashMap<>();
+        Map<Long, Integer> referenceDeltas = new HashMap<>();
+        for (Training training : currentTrainings)
+        {
+            knownByHash.putIfAbsent(structureHashOf(training), training);
+            referenceDeltas.merge(training.getId(), -1, Integer::sum);
+        }
+
+        List<Training> merged = dtos == null ? List.of() : resolveTemplates(candidatesOf(dtos), knownByHash);
+        for (Training template : merged)
+            referenceDeltas.merge(template.getId(), 1, Integer::sum);
+
+        // Reposiciona apenas os índices que mudaram; os que sobrarem no fim são removidos
+        for (int i = 0; i < merged.size(); i++)
+        {
+            if (i < currentTrainings.size())
+            {
+                if (currentTrainings.get(i) != merged.get(i))
+                    currentTrainings.set(i, merged.get(i));
+            }
+            else
+                currentTrainings.add(merged.get(i));
+        }
+
+        if (currentTrainings.size() > merged.size())
+            currentTrainings.subList(merged.size(), currentTrainings.size()).clear();
+
+        applyReferenceDeltas(referenceDeltas);
+    }
+
+    /*
+     * DELETE
+     */
+
+    /**
+     * Libera as referências de uma rotina removida; templates que ficarem sem uso são apagados.
+     */
+    @Transactional
+    public void releaseTrainings(List<Training> trainings)
+    {
+        Map<Long, Integer> referenceDeltas = new HashMap<>();
+        for (Training training : trainings)
+            referenceDeltas.merge(training.getId(), -1, Integer::sum);
+
+        applyReferenceDeltas(referenceDeltas);
+    }
+
+    /**
+     * Migração única para templates compartilhados: move o vínculo rotina → treino da antiga
+     * coluna training.routine_id para routine_trainings, funde treinos de mesma estrutura
+     * (repontando rotinas e histórico para o de menor ID) e recalcula as contagens de referência.
+     * É idempotente: sem colunas antigas nem treinos sem hash, não faz nada.
+     * @return Quantas cópias duplicadas foram removidas.
+     */
+    @Transactional
+    public int migrateToSharedTemplates()
+    {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND table_name = 'training' AND column_name = 'routine_id'",
+            Integer.class);
+
+        if (legacyColumns != null && legacyColumns > 0)
+        {
+            jdbcTemplate.update(
+                "INSERT INTO routine_trainings (routine_id, training_id, training_order) " +
+                "SELECT routine_id, id, training_order FROM training WHERE routine_id IS NOT NULL " +
+                "ON CONFLICT DO NOTHING");
+            jdbcTemplate.execute("ALTER TABLE training DROP COLUMN routine_id, DROP COLUMN IF EXISTS training_order");
+        }
+
+        List<Training> unhashed = trainingRepository.findByStructureHashIsNullOrderByIdAsc();
+        if (unhashed.isEmpty())
+            return 0;
+
+        Map<String, Training> canonicalByHash = new HashMap<>();
+        Map<Training, String> hashes = new HashMap<>();
+        for (Training training : unhashed)
+            hashes.put(training, structureHashOf(training));
+
+        for (Training template : trainingRepository.findByStructureHashIn(new HashSet<>(hashes.values())))
+            canonicalByHash.put(template.getStructureHash(), template);
+
+        int removed = 0;
+        for (Training training : unhashed)
+        {
+            String hash = hashes.get(training);
+            Training canonical = canonicalByHash.putIfAbsent(hash, training);
+
+            if (canonical == null)
+            {
+                training.setStructureHash(hash);
+                continue;
+            }
+
+            jdbcTemplate.update("UPDATE routine_trainings SET training_id = ? WHERE training_id = ?", canonical.getId(), training.getId());
+            jdbcTemplate.update("UPDATE training_history SET training_template_id = ? WHERE training_template_id = ?", canonical.getId(), training.getId());
+            trainingRepository.delete(training);
+            removed++;
+        }
+
+        // Grava hashes e remoções antes da recontagem, que é feita direto no banco
+        trainingRepository.flush();
+        jdbcTemplate.update("UPDATE training t SET reference_count = (SELECT COUNT(*) FROM routine_trainings rt WHERE rt.training_id = t.id)");
+
+        // Rollups de sessões apontavam para as cópias removidas: são recalculados na carga seguinte
+        if (removed > 0)
+            jdbcTemplate.update("DELETE FROM training_session_rollup");
+
+        return removed;
     }
 
     /*
@@ -82,12 +237,24 @@ public class TrainingService
             .orElseThrow(() -> new ResourceNotFoundException("Treino de id '" + id +"' não encontrado."));
     }
 
+    /**
+     * Retorna os templates de Treino dos IDs informados, indexados pelo ID (IDs inexistentes ficam de fora).
+     */
+    public Map<Long, Training> getTrainingsByIds(Collection<Long> ids)
+    {
+        Map<Long, Training> trainings = new HashMap<>();
+        for (Training training : trainingRepository.findAllById(ids))
+            trainings.put(training.getId(), training);
+
+        return trainings;
+    }
+
     /**
      * Retorna oa templatea de todos os Treinos.
      */
     public List<Exercise> listAllExercises() throws ResourceNotFoundException
     {
-        return exerciseRepository.findAll();
+        return exerciseCatalog.snapshot().exercises();
     }
 
     // ----------------------------------------------------
@@ -95,46 +262,175 @@ public class TrainingService
     // ----------------------------------------------------
 
     /**
-     * Mapeia um Training para TrainingDTO.
-     */
-    public TrainingDTO toDTO(Training training)
-    {
-        List<TrainingSetDTO> trainingSetDTOs = new ArrayList<>(training.getTrainingSets())
-            .stream()
-            .map(set -> new TrainingSetDTO(
-                set.getExerciseOrder(),
-                set.getExerciseId(),
-                set.getSets(),
-                set.getRepetitions(),
-                set.getRestTimeSeconds(),
-                set.getTechnique(),
-                set.getLoadInKg(),
-                set.getDurationSeconds()
-            ))
-            .collect(Collectors.toList());
-
-        TrainingDTO dto = TrainingDTO.builder()
-            .id(training.getId())
-            .name(training.getName())
-            .targetMuscleGroups(new HashSet<>(training.getTargetMuscleGroups()))
-            .trainingSets(trainingSetDTOs)
-            .build();
+     * Monta os candidatos (não persistidos) a template, já com o hash canônico calculado.
+     */
+    private List<Training> candidatesOf(List<TrainingDTO> dtos)
+    {
+        List<Training> candidates = new ArrayList<>(dtos.size());
+
+        for (TrainingDTO dto : dtos)
+        {
+            if (dto == null)
+                continue;
+
+            List<TrainingSet> sets = dto.getTrainingSets() == null ? new ArrayList<>() : dto.getTrainingSets().stream()
+                .map(this::mapTrainingSetDtoToEntity)
+                .collect(Collectors.toList());
+
+            Training candidate = Training.builder()
+                .name(dto.getName())
+                .targetMuscleGroups(dto.getTargetMuscleGroups() == null ? new HashSet<>() : new HashSet<>(dto.getTargetMuscleGroups()))
+                .trainingSets(sets)
+                .build();
+
+            candidate.setStructureHash(structureHashOf(candidate));
+            candidates.add(candidate);
+        }
 
-        return dto;
+        return candidates;
     }
 
     /**
-     * Método auxiliar para mapear o DTO para a entidade Embeddable TrainingSet.
-     * Inclui validação para garantir que o Exercise ID existe no catálogo.
+     * Troca cada candidato pelo template de mesma estrutura: primeiro entre os já conhecidos,
+     * depois com uma única consulta por hash; os que faltarem são inseridos (sem referências ainda).
+     * A inserção usa ON CONFLICT (structure_hash) DO NOTHING: se outro profissional gravar o mesmo
+     * treino ao mesmo tempo, a instrução espera o commit dele e o template dele é relido pelo hash,
+     * em vez de violar o índice único.
      */
-    private TrainingSet mapTrainingSetDtoToEntity(TrainingSetDTO dto)
+    private List<Training> resolveTemplates(List<Training> candidates, Map<String, Training> knownByHash)
+    {
+        Map<String, Training> missing = new LinkedHashMap<>();
+        for (Training candidate : candidates)
+            if (!knownByHash.containsKey(candidate.getStructureHash()))
+                missing.putIfAbsent(candidate.getStructureHash(), candidate);
+
+        if (!missing.isEmpty())
+        {
+            for (Training template : trainingRepository.findByStructureHashIn(missing.keySet()))
+                knownByHash.put(template.getStructureHash(), template);
+
+            missing.keySet().removeAll(knownByHash.keySet());
+        }
+
+        if (!missing.isEmpty())
+        {
+            missing.values().forEach(this::insertTemplateIfAbsent);
+
+            for (Training template : trainingRepository.findByStructureHashIn(missing.keySet()))
+                knownByHash.put(template.getStructureHash(), template);
+        }
+
+        List<Training> templates = new ArrayList<>(candidates.size());
+        for (Training candidate : candidates)
+        {
+            Training template = knownByHash.get(candidate.getStructureHash());
+            if (template == null)
+                throw new IllegalStateException("O treino '" + candidate.getName() + "' foi removido durante a operação. Tente novamente.");
+
+            templates.add(template);
+        }
+
+        return templates;
+    }
+
+    /**
+     * Insere o template (linha, grupos musculares e séries) se nenhum outro tiver o mesmo hash.
+     * As coleções só são gravadas quando a linha foi de fato inserida por esta transação.
+     */
+    private void insertTemplateIfAbsent(Training candidate)
+    {
+        Long trainingId = jdbcTemplate.query(
+            "INSERT INTO training (name, structure_hash, reference_count) VALUES (?, ?, 0) " +
+            "ON CONFLICT (structure_hash) DO NOTHING RETURNING id",
+            rs -> rs.next() ? rs.getLong(1) : null,
+            candidate.getName(), candidate.getStructureHash());
+
+        if (trainingId == null)
+            return;
+
+        List<Object[]> muscleGroups = candidate.getTargetMuscleGroups().stream()
+            .map(group -> new Object[] { trainingId, group.name() })
+            .toList();
+        if (!muscleGroups.isEmpty())
+            jdbcTemplate.batchUpdate("INSERT INTO training_muscle_groups (training_id, target_muscle_groups) VALUES (?, ?)", muscleGroups);
+
+        List<Object[]> sets = new ArrayList<>(candidate.getTrainingSets().size());
+        for (int index = 0; index < candidate.getTrainingSets().size(); index++)
+        {
+            TrainingSet set = candidate.getTrainingSets().get(index);
+            sets.add(new Object[] {
+                trainingId, index, set.getExerciseOrder(), set.getExerciseId(), set.getSets(), set.getRepetitions(),
+                set.getRestTimeSeconds(), set.getTechnique() == null ? null : set.getTechnique().name(),
+                set.getLoadInKg(), set.getDurationSeconds() });
+        }
+        if (!sets.isEmpty())
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO training_sets (training_id, set_index, exercise_order, exercise_id, sets, repetitions, " +
+                "rest_time_seconds, technique, load_in_kg, duration_seconds) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                sets);
+    }
+
+    /**
+     * Aplica os saldos de referência por template e remove os que ficaram sem uso.
+     * @throws IllegalStateException se um template referenciado foi removido concorrentemente.
+     */
+    private void applyReferenceDeltas(Map<Long, Integer> referenceDeltas)
+    {
+        List<Long> released = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> entry : referenceDeltas.entrySet())
+        {
+            if (entry.getValue() == 0)
+                continue;
+
+            int updated = trainingRepository.adjustReferenceCount(entry.getKey(), entry.getValue());
+
+            if (entry.getValue() > 0 && updated == 0)
+                throw new IllegalStateException("O treino de id '" + entry.getKey() + "' foi removido durante a operação. Tente novamente.");
+
+            if (entry.getValue() < 0)
+                released.add(entry.getKey());
+        }
+
+        if (!released.isEmpty())
+            trainingRepository.deleteAll(trainingRepository.findUnreferencedByIdIn(released));
+    }
+
+    /**
+     * Hash canônico do treino; templates anteriores à deduplicação ainda podem não tê-lo gravado.
+     */
+    private String structureHashOf(Training training)
+    {
+        if (training.getStructureHash() != null)
+            return training.getStructureHash();
+
+        return TrainingFingerprint.of(training.getName(), training.getTargetMuscleGroups(), training.getTrainingSets());
+    }
+
+    /**
+     * Coleta os IDs de exercício de todas as séries dos treinos, para validação em uma única passada.
+     */
+    private Set<Long> exerciseIdsOf(List<TrainingDTO> dtos)
     {
-        if (dto.getExerciseId() != null)
+        Set<Long> exerciseIds = new HashSet<>();
+        for (TrainingDTO dto : dtos)
         {
-            exerciseRepository.findById(dto.getExerciseId())
-                .orElseThrow(() -> new ResourceNotFoundException("Exercício de ID " + dto.getExerciseId() + " não encontrado no catálogo."));
+            if (dto == null || dto.getTrainingSets() == null)
+                continue;
+
+            for (TrainingSetDTO setDto : dto.getTrainingSets())
+                if (setDto != null && setDto.getExerciseId() != null)
+                    exerciseIds.add(setDto.getExerciseId());
         }
+        return exerciseIds;
+    }
 
+    /**
+     * Método auxiliar para mapear o DTO para a entidade Embeddable TrainingSet.
+     * Os IDs de exercício já foram validados em lote pelo chamador (ver exerciseIdsOf).
+     */
+    private TrainingSet mapTrainingSetDtoToEntity(TrainingSetDTO dto)
+    {
         return TrainingSet.builder()
             .exerciseOrder(dto.getExerciseOrder())
             .exerciseId(dto.getExerciseId())
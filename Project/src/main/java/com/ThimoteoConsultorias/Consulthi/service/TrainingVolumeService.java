@@ -0,0 +1,440 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import com.ThimoteoConsultorias.Consulthi.dto.MuscleGroupVolumeSeriesDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.WeeklyVolumeChartDTO;
+import com.ThimoteoConsultorias.Consulthi.enums.MuscleGroup;
+import com.ThimoteoConsultorias.Consulthi.model.Exercise;
+import com.ThimoteoConsultorias.Consulthi.model.MuscleGroupWeeklyVolume;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+import com.ThimoteoConsultorias.Consulthi.repository.MuscleGroupWeeklyVolumeRepository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Volume de treino por aluno e grupo muscular em buckets semanais (muscle_group_weekly_volume).
+ * Cada registro de TrainingHistory soma seu volume aos buckets da semana; a reconstrução a partir
+ * do histórico roda em paralelo, em lotes de alunos, apenas com JDBC e o catálogo imutável.
+ * Uma série conta integralmente para cada grupo muscular do exercício.
+ */
+@Service
+public class TrainingVolumeService
+{
+    // ----------------------------------------------------
+    // 1. DEPENDÊNCIAS
+    // ----------------------------------------------------
+    public static final int DEFAULT_CHART_WEEKS = 12;
+    private static final int MAX_CHART_WEEKS = 52;
+
+    private static final int REBUILD_CHUNK_SIZE = 200;
+    private static final int REBUILD_PARALLELISM = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Namespace (primeira chave) dos advisory locks por aluno que serializam os upserts ao vivo
+     * com a reconstrução dos buckets desse aluno.
+     */
+    private static final int STUDENT_VOLUME_LOCK = 0x766F6C; // "vol"
+
+    private static final String UPSERT_BUCKET =
+        "INSERT INTO muscle_group_weekly_volume (student_user_id, muscle_group, week_start, sets, repetitions, tonnage_kg) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (student_user_id, muscle_group, week_start) DO UPDATE SET " +
+        "sets = muscle_group_weekly_volume.sets + EXCLUDED.sets, " +
+        "repetitions = muscle_group_weekly_volume.repetitions + EXCLUDED.repetitions, " +
+        "tonnage_kg = muscle_group_weekly_volume.tonnage_kg + EXCLUDED.tonnage_kg";
+
+    private final MuscleGroupWeeklyVolumeRepository volumeRepository;
+    private final ExerciseCatalog exerciseCatalog;
+    private final StudentProfessionalLinkService linkService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /** Chave de um bucket durante a reconstrução. */
+    private record BucketKey(Long studentId, MuscleGroup muscleGroup, LocalDate weekStart) {}
+
+    /** Sessão lida do histórico durante a reconstrução. */
+    private record HistorySession(Long studentId, Long templateId, LocalDate weekStart, byte[] setLog) {}
+
+    /** Acumulador de volume de um bucket. */
+    private static final class VolumeDelta
+    {
+        long sets;
+        long repetitions;
+        double tonnageKg;
+
+        void add(long sets, long repetitions, double tonnageKg)
+        {
+            this.sets += sets;
+            this.repetitions += repetitions;
+            this.tonnageKg += tonnageKg;
+        }
+    }
+
+    // ----------------------------------------------------
+    // 2. CONSTRUTOR
+    // ----------------------------------------------------
+    public TrainingVolumeService
+    (
+        MuscleGroupWeeklyVolumeRepository volumeRepository,
+        ExerciseCatalog exerciseCatalog,
+        StudentProfessionalLinkService linkService,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    )
+    {
+        this.volumeRepository = volumeRepository;
+        this.exerciseCatalog = exerciseCatalog;
+        this.linkService = linkService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ----------------------------------------------------
+    // 3. MÉTODOS DE DOMÍNIO
+    // ----------------------------------------------------
+
+    /*
+     * UPDATE
+     */
+
+    /**
+     * Soma o volume de uma sessão aos buckets da semana (um upsert por grupo muscular, em lote).
+     * Deve ser chamado na transação que grava o TrainingHistory.
+     * @param templateSets Séries do template executado.
+     * @param performedSets Séries registradas; se vazio, usa o prescrito no template.
+     */
+    public void recordSession(Long studentUserId, LocalDateTime executionDateTime, List<TrainingSet> templateSets, List<SetLogEntryDTO> performedSets)
+    {
+        Map<MuscleGroup, VolumeDelta> volume = volumeOf(templateSets, performedSets, exerciseCatalog.snapshot().byId());
+        if (volume.isEmpty())
+            return;
+
+        // Espera uma reconstrução em andamento dos buckets do aluno (liberado no commit)
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {}, STUDENT_VOLUME_LOCK, lockKeyOf(studentUserId));
+
+        Date weekStart = Date.valueOf(weekStartOf(executionDateTime.toLocalDate()));
+        List<Object[]> rows = new ArrayList<>(volume.size());
+
+        volume.forEach((muscleGroup, delta) ->
+            rows.add(new Object[] { studentUserId, muscleGroup.name(), weekStart, delta.sets, delta.repetitions, delta.tonnageKg }));
+
+        jdbcTemplate.batchUpdate(UPSERT_BUCKET, rows);
+    }
+
+    /**
+     * Reconstrói todos os buckets a partir do histórico. Os alunos com histórico são divididos em lotes
+     * processados em paralelo; cada lote apaga e regrava seus buckets na própria transação.
+     * Pode rodar com a aplicação no ar: cada lote trava seus alunos (advisory lock, o mesmo de recordSession)
+     * antes de ler o histórico, então nenhuma sessão gravada no meio do lote é perdida.
+     * Os templates são lidos por lote, depois das travas; como são imutáveis, ficam compartilhados entre os lotes.
+     * @return Quantos buckets foram gravados.
+     */
+    public int rebuildFromHistory()
+    {
+        Map<Long, List<TrainingSet>> templates = new ConcurrentHashMap<>();
+
+        List<Long> studentIds = jdbcTemplate.queryForList(
+            "SELECT DISTINCT ri.student_user_id FROM training_history h " +
+            "JOIN routine_instance ri ON ri.id = h.routine_instance_id ORDER BY ri.student_user_id",
+            Long.class);
+
+        if (studentIds.isEmpty())
+            return 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(REBUILD_PARALLELISM);
+        try
+        {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (int from = 0; from < studentIds.size(); from += REBUILD_CHUNK_SIZE)
+            {
+                List<Long> chunk = studentIds.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, studentIds.size()));
+                chunks.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildChunk(chunk, templates))));
+            }
+
+            int buckets = 0;
+            for (Future<Integer> chunk : chunks)
+                buckets += chunk.get();
+
+            return buckets;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstrução do volume semanal interrompida.", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Falha na reconstrução do volume semanal.", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reconstrói os buckets apenas se a tabela estiver vazia e houver histórico (primeira execução).
+     */
+    public int backfillIfEmpty()
+    {
+        if (volumeRepository.count() > 0)
+            return 0;
+
+        return rebuildFromHistory();
+    }
+
+    /*
+     * READ
+     */
+
+    /**
+     * Volume das últimas semanas de um aluno vinculado ao Profissional, pronto para gráfico.
+     * @param weeks Quantidade de semanas, incluindo a atual.
+     * @throws IllegalArgumentException se weeks estiver fora de [1, 52].
+     * @throws SecurityException se o aluno não tiver vínculo ativo com o Profissional.
+     */
+    public WeeklyVolumeChartDTO getWeeklyVolumeChart(Long professionalUserId, Long studentUserId, int weeks)
+    {
+        if (weeks < 1 || weeks > MAX_CHART_WEEKS)
+            throw new IllegalArgumentException("O número de semanas deve estar entre 1 e " + MAX_CHART_WEEKS + ".");
+
+        if (!linkService.isActiveLink(studentUserId, professionalUserId))
+            throw new SecurityException("Aluno não vinculado a este profissional.");
+
+        LocalDate firstWeek = weekStartOf(LocalDate.now()).minusWeeks(weeks - 1L);
+
+        List<LocalDate> axis = new ArrayList<>(weeks);
+        for (int i = 0; i < weeks; i++)
+            axis.add(firstWeek.plusWeeks(i));
+
+        Map<MuscleGroup, Long[]> sets = new EnumMap<>(MuscleGroup.class);
+        Map<MuscleGroup, Long[]> repetitions = new EnumMap<>(MuscleGroup.class);
+        Map<MuscleGroup, Double[]> tonnage = new EnumMap<>(MuscleGroup.class);
+
+        for (MuscleGroupWeeklyVolume bucket : volumeRepository.findByStudentIdSince(studentUserId, firstWeek))
+        {
+            int position = axis.indexOf(bucket.getId().getWeekStart());
+            if (position < 0)
+                continue;
+
+            MuscleGroup muscleGroup = bucket.getId().getMuscleGroup();
+            sets.computeIfAbsent(muscleGroup, group -> filled(new Long[weeks], 0L))[position] = bucket.getSets();
+            repetitions.computeIfAbsent(muscleGroup, group -> filled(new Long[weeks], 0L))[position] = bucket.getRepetitions();
+            tonnage.computeIfAbsent(muscleGroup, group -> filled(new Double[weeks], 0.0))[position] = bucket.getTonnageKg();
+        }
+
+        List<MuscleGroupVolumeSeriesDTO> series = new ArrayList<>(sets.size());
+        for (MuscleGroup muscleGroup : sets.keySet())
+            series.add(MuscleGroupVolumeSeriesDTO.builder()
+                .muscleGroup(muscleGroup)
+                .sets(List.of(sets.get(muscleGroup)))
+                .repetitions(List.of(repetitions.get(muscleGroup)))
+                .tonnageKg(List.of(tonnage.get(muscleGroup)))
+                .build());
+
+        return WeeklyVolumeChartDTO.builder()
+            .studentId(studentUserId)
+            .weeks(axis)
+            .series(series)
+            .build();
+    }
+
+    // ----------------------------------------------------
+    // 4. MÉTODOS AUXILIARES
+    // ----------------------------------------------------
+
+    /**
+     * Volume de uma sessão por grupo muscular. Séries registradas contam uma a uma (reps × carga);
+     * sem registro, vale o prescrito no template (séries × reps × carga).
+     */
+    private static Map<MuscleGroup, VolumeDelta> volumeOf(List<TrainingSet> templateSets, List<SetLogEntryDTO> performedSets, Map<Long, Exercise> exercises)
+    {
+        Map<MuscleGroup, VolumeDelta> volume = new EnumMap<>(MuscleGroup.class);
+        if (templateSets == null || templateSets.isEmpty())
+            return volume;
+
+        if (performedSets != null && !performedSets.isEmpty())
+        {
+            for (SetLogEntryDTO entry : performedSets)
+            {
+                if (entry.getTrainingSetIndex() >= templateSets.size())
+                    continue;
+
+                long reps = entry.getRepetitions() == null ? 0 : entry.getRepetitions();
+                double load = entry.getLoadInKg() == null ? 0 : entry.getLoadInKg();
+
+                for (MuscleGroup muscleGroup : muscleGroupsOf(templateSets.get(entry.getTrainingSetIndex()), exercises))
+                    volume.computeIfAbsent(muscleGroup, group -> new VolumeDelta()).add(1, reps, reps * load);
+            }
+            return volume;
+        }
+
+        for (TrainingSet set : templateSets)
+        {
+            long sets = set.getSets() == null ? 0 : set.getSets();
+            long reps = sets * (set.getRepetitions() == null ? 0 : set.getRepetitions());
+            double load = set.getLoadInKg() == null ? 0 : set.getLoadInKg();
+
+            if (sets == 0)
+                continue;
+
+            for (MuscleGroup muscleGroup : muscleGroupsOf(set, exercises))
+                volume.computeIfAbsent(muscleGroup, group -> new VolumeDelta()).add(sets, reps, reps * load);
+        }
+
+        return volume;
+    }
+
+    private static Set<MuscleGroup> muscleGroupsOf(TrainingSet set, Map<Long, Exercise> exercises)
+    {
+        Exercise exercise = set.getExerciseId() == null ? null : exercises.get(set.getExerciseId());
+        return exercise == null ? Collections.emptySet() : exercise.getMuscleGroups();
+    }
+
+    /**
+     * Lê e regrava os buckets de um lote de alunos. Roda em thread própria, sem tocar no contexto JPA.
+     * Os alunos do lote são travados antes da leitura: sessões em andamento terminam (e entram na leitura)
+     * e novas sessões esperam o commit do lote para somar aos buckets regravados.
+     * @param templates Séries já carregadas por template, compartilhadas entre os lotes; completadas sob demanda.
+     */
+    private int rebuildChunk(List<Long> studentIds, Map<Long, List<TrainingSet>> templates)
+    {
+        String placeholders = String.join(", ", Collections.nCopies(studentIds.size(), "?"));
+        Object[] params = studentIds.toArray();
+
+        // Chaves ordenadas: lotes e sessões sempre adquirem as travas na mesma ordem
+        Integer[] lockKeys = studentIds.stream().map(TrainingVolumeService::lockKeyOf).distinct().sorted().toArray(Integer[]::new);
+        jdbcTemplate.query(
+            "SELECT pg_advisory_xact_lock(?, k) FROM unnest(?) WITH ORDINALITY AS t(k, n) ORDER BY n",
+            ps ->
+            {
+                ps.setInt(1, STUDENT_VOLUME_LOCK);
+                ps.setArray(2, ps.getConnection().createArrayOf("integer", lockKeys));
+            },
+            rs -> {});
+
+        List<HistorySession> sessions = new ArrayList<>();
+
+        jdbcTemplate.query(
+            "SELECT ri.student_user_id, h.training_template_id, h.execution_date_time, h.set_log " +
+            "FROM training_history h JOIN routine_instance ri ON ri.id = h.routine_instance_id " +
+            "WHERE ri.student_user_id IN (" + placeholders + ")",
+            rs ->
+            {
+                sessions.add(new HistorySession(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    weekStartOf(rs.getTimestamp(3).toLocalDateTime().toLocalDate()),
+                    rs.getBytes(4)));
+            },
+            params);
+
+        // Templates criados depois do início da reconstrução são lidos aqui, já com o lote travado
+        Set<Long> missingTemplateIds = new HashSet<>();
+        for (HistorySession session : sessions)
+            if (!templates.containsKey(session.templateId()))
+                missingTemplateIds.add(session.templateId());
+
+        if (!missingTemplateIds.isEmpty())
+            templates.putAll(loadTemplateSets(missingTemplateIds));
+
+        Map<Long, Exercise> exercises = exerciseCatalog.snapshot().byId();
+        Map<BucketKey, VolumeDelta> buckets = new HashMap<>();
+
+        for (HistorySession session : sessions)
+        {
+            List<TrainingSet> templateSets = templates.get(session.templateId());
+            if (templateSets == null)
+                throw new IllegalStateException("Template de treino de ID " + session.templateId() + " não encontrado na reconstrução do volume.");
+
+            volumeOf(templateSets, SetLogCodec.decode(session.setLog()), exercises).forEach((muscleGroup, delta) ->
+                buckets.computeIfAbsent(new BucketKey(session.studentId(), muscleGroup, session.weekStart()), key -> new VolumeDelta())
+                    .add(delta.sets, delta.repetitions, delta.tonnageKg));
+        }
+
+        jdbcTemplate.update("DELETE FROM muscle_group_weekly_volume WHERE student_user_id IN (" + placeholders + ")", params);
+
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, delta) -> rows.add(new Object[] {
+            key.studentId(), key.muscleGroup().name(), Date.valueOf(key.weekStart()), delta.sets, delta.repetitions, delta.tonnageKg }));
+
+        jdbcTemplate.batchUpdate(UPSERT_BUCKET, rows);
+
+        return rows.size();
+    }
+
+    /**
+     * Séries dos templates informados, por training_id e na ordem do template (set_index).
+     * Templates sem séries entram com lista vazia; IDs inexistentes ficam de fora.
+     */
+    private Map<Long, List<TrainingSet>> loadTemplateSets(Collection<Long> templateIds)
+    {
+        Map<Long, List<TrainingSet>> templates = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(templateIds.size(), "?"));
+
+        jdbcTemplate.query(
+            "SELECT t.id, s.set_index, s.exercise_id, s.sets, s.repetitions, s.load_in_kg FROM training t " +
+            "LEFT JOIN training_sets s ON s.training_id = t.id " +
+            "WHERE t.id IN (" + placeholders + ") " +
+            "ORDER BY t.id, s.set_index",
+            rs ->
+            {
+                List<TrainingSet> sets = templates.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>());
+                if (rs.getObject(2) == null)
+                    return;
+
+                sets.add(TrainingSet.builder()
+                    .exerciseId(rs.getObject(3, Long.class))
+                    .sets(rs.getObject(4, Integer.class))
+                    .repetitions(rs.getObject(5, Integer.class))
+                    .loadInKg(rs.getObject(6, Float.class))
+                    .build());
+            },
+            templateIds.toArray());
+
+        return templates;
+    }
+
+    /**
+     * Segunda chave do advisory lock do aluno (colisões apenas serializam alunos distintos).
+     */
+    private static int lockKeyOf(Long studentUserId)
+    {
+        return Long.hashCode(studentUserId);
+    }
+
+    private static LocalDate weekStartOf(LocalDate date)
+    {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static <T> T[] filled(T[] array, T value)
+    {
+        Arrays.fill(array, value);
+        return array;
+    }
+}
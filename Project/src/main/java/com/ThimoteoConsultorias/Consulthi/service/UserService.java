@@ -16,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -136,6 +137,25 @@ public class UserService
         }
     }
 
+    /**
+     * Ativa, em uma instrução, os alunos cuja primeira aceitação são os links informados (RF01),
+     * e avisa os ativados em uma única notificação.
+     * @return IDs dos alunos ativados.
+     */
+    @Transactional
+    public List<Long> activateFirstAcceptedStudents(Collection<Long> studentUserIds, Collection<Long> acceptedLinkIds)
+    {
+        if (studentUserIds.isEmpty())
+            return List.of();
+
+        List<Long> activated = userRepository.activateFirstAcceptedStudents(studentUserIds, acceptedLinkIds);
+
+        if (!activated.isEmpty())
+            notificationService.notifyStudentsOfActivation(activated);
+
+        return activated;
+    }
+
     /*
      * READ
      */
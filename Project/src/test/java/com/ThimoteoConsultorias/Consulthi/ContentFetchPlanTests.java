@@ -0,0 +1,183 @@
+package com.ThimoteoConsultorias.Consulthi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ThimoteoConsultorias.Consulthi.dto.ContentDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.TrainingSetDTO;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentTag;
+import com.ThimoteoConsultorias.Consulthi.enums.ContentType;
+import com.ThimoteoConsultorias.Consulthi.enums.GoalType;
+import com.ThimoteoConsultorias.Consulthi.enums.MuscleGroup;
+import com.ThimoteoConsultorias.Consulthi.enums.RoutineLevel;
+import com.ThimoteoConsultorias.Consulthi.service.ContentCache;
+import com.ThimoteoConsultorias.Consulthi.service.ContentService;
+import com.ThimoteoConsultorias.Consulthi.service.TrainingService;
+import com.ThimoteoConsultorias.Consulthi.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Garante que o carregamento do grafo de cada tipo de conteúdo usa um número limitado de consultas,
+ * independente do tamanho do conteúdo, e que o editor lê projeções sem hidratar entidades.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ContentFetchPlanTests {
+
+	private static final long MAX_STATEMENTS_DIET = 8;
+	private static final long MAX_STATEMENTS_MATERIAL = 8;
+	private static final long MAX_STATEMENTS_ROUTINE = 10;
+
+	@Autowired
+	private ContentService contentService;
+
+	@Autowired
+	private ContentCache contentCache;
+
+	@Autowired
+	private TrainingService trainingService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long coachId;
+	private Long exerciseId;
+
+	@BeforeEach
+	void setUp() {
+		coachId = userService.getUserByUsername("coach1").getId();
+		exerciseId = trainingService.listAllExercises().get(0).getId();
+	}
+
+	@Test
+	void dietLoadsWithinStatementBudget() {
+		ContentDTO diet = ContentDTO.builder()
+			.contentType(ContentType.DIET)
+			.name("Dieta de teste")
+			.description("Plano de teste")
+			.accessStudentIds(Set.of())
+			.mealsEspecifications("Café: ovos\nAlmoço: arroz e frango")
+			.build();
+
+		assertTrue(countStatementsToLoad(diet) <= MAX_STATEMENTS_DIET);
+	}
+
+	@Test
+	void materialLoadsWithinStatementBudget() {
+		ContentDTO material = ContentDTO.builder()
+			.contentType(ContentType.MATERIAL)
+			.name("Material de teste")
+			.description("Leitura de teste")
+			.accessStudentIds(Set.of())
+			.tags(Set.of(ContentTag.values()[0]))
+			.contentBlocks(List.of())
+			.build();
+
+		assertTrue(countStatementsToLoad(material) <= MAX_STATEMENTS_MATERIAL);
+	}
+
+	@Test
+	void routineStatementCountDoesNotGrowWithTrainings() {
+		long smallRoutine = countStatementsToLoad(routineWith(2, 3));
+		long largeRoutine = countStatementsToLoad(routineWith(8, 6));
+
+		assertTrue(largeRoutine <= MAX_STATEMENTS_ROUTINE);
+		assertEquals(smallRoutine, largeRoutine);
+	}
+
+	@Test
+	void editorProjectionLoadsNoEntities() {
+		Long contentId = contentService.createContent(routineWith(8, 6), coachId).getId();
+
+		try {
+			Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+			// Caminho de entidades: grafo completo carregado do banco (cache de snapshots vazio)
+			contentCache.evict(contentId);
+			statistics.clear();
+			contentService.getContentById(contentId);
+			long entityPathStatements = statistics.getPrepareStatementCount();
+			long entityPathLoads = statistics.getEntityLoadCount() + statistics.getCollectionLoadCount();
+
+			// Caminho de projeções usado pelo editor
+			statistics.clear();
+			ContentDTO dto = contentService.getContentAsDTO(contentId, coachId);
+			long projectionStatements = statistics.getPrepareStatementCount();
+			long projectionLoads = statistics.getEntityLoadCount() + statistics.getCollectionLoadCount();
+
+			assertTrue(entityPathLoads > 0);
+			assertEquals(0, projectionLoads);
+			assertTrue(projectionStatements <= entityPathStatements);
+			assertEquals(8, dto.getTrainingDtos().size());
+			assertEquals(6, dto.getTrainingDtos().get(7).getTrainingSets().size());
+		} finally {
+			contentService.deleteContent(contentId, coachId);
+		}
+	}
+
+	private long countStatementsToLoad(ContentDTO dto) {
+		Long contentId = contentService.createContent(dto, coachId).getId();
+
+		try {
+			Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+			contentCache.evict(contentId);
+			statistics.clear();
+
+			contentService.getContentById(contentId);
+
+			return statistics.getPrepareStatementCount();
+		} finally {
+			contentService.deleteContent(contentId, coachId);
+		}
+	}
+
+	private ContentDTO routineWith(int trainingCount, int setsPerTraining) {
+		List<TrainingDTO> trainings = new ArrayList<>();
+
+		for (int t = 0; t < trainingCount; t++) {
+			List<TrainingSetDTO> sets = new ArrayList<>();
+
+			for (int s = 0; s < setsPerTraining; s++)
+				sets.add(TrainingSetDTO.builder()
+					.exerciseOrder(s)
+					.exerciseId(exerciseId)
+					.sets(3)
+					.repetitions(10)
+					.restTimeSeconds(60)
+					.build());
+
+			trainings.add(TrainingDTO.builder()
+				.name("Treino " + t)
+				.targetMuscleGroups(Set.of(MuscleGroup.CHEST, MuscleGroup.TRICEPS))
+				.trainingSets(sets)
+				.build());
+		}
+
+		return ContentDTO.builder()
+			.contentType(ContentType.ROUTINE)
+			.name("Rotina de teste")
+			.description("Rotina com " + trainingCount + " treinos")
+			.accessStudentIds(Set.of())
+			.routineLevel(RoutineLevel.values()[0])
+			.goals(Set.of(GoalType.values()[0]))
+			.trainingDtos(trainings)
+			.build();
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ThimoteoConsultorias.Consulthi.config.AfterCommitExecutor;
+import com.ThimoteoConsultorias.Consulthi.dto.PersonalRecordDTO;
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+import com.ThimoteoConsultorias.Consulthi.model.Exercise;
+import com.ThimoteoConsultorias.Consulthi.model.PersonalRecord;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.PersonalRecordId;
+import com.ThimoteoConsultorias.Consulthi.model.embeddables.TrainingSet;
+import com.ThimoteoConsultorias.Consulthi.repository.PersonalRecordRepository;
+import com.ThimoteoConsultorias.Consulthi.service.PersonalRecordCache.StudentRecords;
+import com.ThimoteoConsultorias.Consulthi.service.PersonalRecordService.SessionSets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Avaliação em lote dos recordes pessoais: as sessões são comparadas em ordem de execução,
+ * com a melhor marca acumulada no lote, e geram uma única notificação.
+ */
+class PersonalRecordServiceTests {
+
+	private static final long STUDENT_ID = 10L;
+	private static final long COACH_ID = 20L;
+	private static final long EXERCISE_ID = 1L;
+
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+	private PersonalRecordRepository personalRecordRepository;
+	private PersonalRecordCache personalRecordCache;
+	private NotificationService notificationService;
+	private PersonalRecordService personalRecordService;
+
+	@BeforeEach
+	void setUp() {
+		personalRecordRepository = mock(PersonalRecordRepository.class);
+		personalRecordCache = new PersonalRecordCache(100);
+		notificationService = mock(NotificationService.class);
+
+		Exercise bench = Exercise.builder().id(EXERCISE_ID).name("Supino").build();
+		ExerciseCatalog exerciseCatalog = mock(ExerciseCatalog.class);
+		when(exerciseCatalog.snapshot()).thenReturn(new ExerciseCatalog.Snapshot(1L, List.of(bench), Map.of(EXERCISE_ID, bench)));
+
+		personalRecordService = new PersonalRecordService(
+			personalRecordRepository, personalRecordCache, exerciseCatalog, notificationService,
+			new AfterCommitExecutor(), mock(JdbcTemplate.class));
+	}
+
+	@Test
+	void laterSessionThatDoesNotBeatAnEarlierOneIsNotARecord() {
+		when(personalRecordRepository.findByStudentId(STUDENT_ID)).thenReturn(List.of(record(90f, 5)));
+
+		// Enviadas fora de ordem: o lote é avaliado pela data de execução
+		List<PersonalRecordDTO> beaten = personalRecordService.evaluateSessions(STUDENT_ID, List.of(
+			session(MONDAY.plusDays(2), 95f, 5),
+			session(MONDAY, 100f, 5)));
+
+		assertEquals(1, beaten.size());
+		assertEquals(100f, beaten.get(0).getMaxLoadKg());
+		assertTrue(beaten.get(0).isNewMaxLoad());
+
+		ArgumentCaptor<String> summary = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Map<Long, String>> summaryByCoach = ArgumentCaptor.captor();
+		verify(notificationService, times(1)).notifyPersonalRecords(eq(STUDENT_ID), summary.capture(), summaryByCoach.capture());
+		assertFalse(summary.getValue().contains("95"));
+		assertEquals(Map.of(COACH_ID, summary.getValue()), summaryByCoach.getValue());
+
+		StudentRecords cached = personalRecordCache.get(STUDENT_ID, List::of);
+		assertEquals(100f, cached.maxLoadKg()[cached.indexOf(EXERCISE_ID)]);
+	}
+
+	@Test
+	void firstSessionOfTheBatchSetsTheBaselineForTheNextOnes() {
+		when(personalRecordRepository.findByStudentId(STUDENT_ID)).thenReturn(List.of());
+
+		List<PersonalRecordDTO> beaten = personalRecordService.evaluateSessions(STUDENT_ID, List.of(
+			session(MONDAY, 60f, 5),
+			session(MONDAY.plusDays(1), 65f, 5),
+			session(MONDAY.plusDays(2), 62.5f, 5)));
+
+		assertEquals(1, beaten.size());
+		assertEquals(65f, beaten.get(0).getMaxLoadKg());
+		verify(notificationService, times(1)).notifyPersonalRecords(eq(STUDENT_ID), anyString(), anyMap());
+	}
+
+	@Test
+	void singleFirstSessionOnlySetsTheBaseline() {
+		when(personalRecordRepository.findByStudentId(STUDENT_ID)).thenReturn(List.of());
+
+		List<PersonalRecordDTO> beaten = personalRecordService.evaluateSessions(STUDENT_ID, List.of(session(MONDAY, 60f, 5)));
+
+		assertTrue(beaten.isEmpty());
+		verify(notificationService, never()).notifyPersonalRecords(anyLong(), anyString(), anyMap());
+	}
+
+	private static SessionSets session(LocalDateTime executedAt, float loadInKg, int repetitions) {
+		List<TrainingSet> templateSets = List.of(TrainingSet.builder().exerciseId(EXERCISE_ID).sets(3).repetitions(repetitions).build());
+		List<SetLogEntryDTO> performedSets = List.of(SetLogEntryDTO.builder()
+			.trainingSetIndex(0)
+			.repetitions(repetitions)
+			.loadInKg(loadInKg)
+			.build());
+
+		return new SessionSets(COACH_ID, executedAt, templateSets, performedSets);
+	}
+
+	private static PersonalRecord record(float maxLoadKg, int repetitions) {
+		return PersonalRecord.builder()
+			.id(new PersonalRecordId(STUDENT_ID, EXERCISE_ID))
+			.maxLoadKg(maxLoadKg)
+			.repsAtMaxLoad(repetitions)
+			.maxRepetitions(repetitions)
+			.estimatedOneRepMaxKg(maxLoadKg * (1 + repetitions / 30f))
+			.updatedAt(MONDAY.minusWeeks(1))
+			.build();
+	}
+
+}
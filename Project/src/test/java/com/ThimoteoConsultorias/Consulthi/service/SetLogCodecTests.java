@@ -0,0 +1,103 @@
+package com.ThimoteoConsultorias.Consulthi.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ThimoteoConsultorias.Consulthi.dto.SetLogEntryDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ida e volta do formato compacto do set_log e rejeição de blobs inválidos.
+ */
+class SetLogCodecTests {
+
+	@Test
+	void roundTripPreservesEveryField() {
+		List<SetLogEntryDTO> entries = List.of(
+			entry(0, 12, 60.5f, null),
+			entry(0, 10, 62.25f, null),
+			entry(1, null, null, 45),
+			entry(2, 8, null, 30));
+
+		List<SetLogEntryDTO> decoded = SetLogCodec.decode(SetLogCodec.encode(entries));
+
+		assertEquals(entries.size(), decoded.size());
+		for (int i = 0; i < entries.size(); i++) {
+			SetLogEntryDTO expected = entries.get(i);
+			SetLogEntryDTO actual = decoded.get(i);
+
+			assertEquals(expected.getTrainingSetIndex(), actual.getTrainingSetIndex());
+			assertEquals(expected.getRepetitions(), actual.getRepetitions());
+			assertEquals(expected.getLoadInKg(), actual.getLoadInKg());
+			assertEquals(expected.getDurationSeconds(), actual.getDurationSeconds());
+			assertNull(actual.getExerciseId());
+		}
+	}
+
+	@Test
+	void emptyLogRoundTrips() {
+		byte[] encoded = SetLogCodec.encode(List.of());
+
+		assertArrayEquals(new byte[] { 1, 0 }, encoded);
+		assertTrue(SetLogCodec.decode(encoded).isEmpty());
+		assertTrue(SetLogCodec.decode(null).isEmpty());
+		assertTrue(SetLogCodec.decode(new byte[0]).isEmpty());
+	}
+
+	@Test
+	void largeValuesUseMultiByteVarints() {
+		List<SetLogEntryDTO> entries = List.of(entry(Integer.MAX_VALUE, Integer.MAX_VALUE, 1234.5f, 16_384));
+
+		List<SetLogEntryDTO> decoded = SetLogCodec.decode(SetLogCodec.encode(entries));
+
+		assertEquals(Integer.MAX_VALUE, decoded.get(0).getTrainingSetIndex());
+		assertEquals(Integer.MAX_VALUE, decoded.get(0).getRepetitions());
+		assertEquals(1234.5f, decoded.get(0).getLoadInKg());
+		assertEquals(16_384, decoded.get(0).getDurationSeconds());
+	}
+
+	@Test
+	void negativeValuesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> SetLogCodec.encode(List.of(entry(0, -1, null, null))));
+	}
+
+	@Test
+	void truncatedBlobIsRejected() {
+		byte[] encoded = SetLogCodec.encode(List.of(entry(0, 12, 60.5f, null), entry(1, 10, 60.5f, null)));
+		byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+		assertThrows(IllegalStateException.class, () -> SetLogCodec.decode(truncated));
+	}
+
+	@Test
+	void unknownVersionIsRejected() {
+		byte[] encoded = SetLogCodec.encode(List.of(entry(0, 12, null, null)));
+		encoded[0] = 2;
+
+		assertThrows(IllegalStateException.class, () -> SetLogCodec.decode(encoded));
+	}
+
+	@Test
+	void overlongVarintIsRejected() {
+		byte[] corrupted = { 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0 };
+
+		assertThrows(IllegalStateException.class, () -> SetLogCodec.decode(corrupted));
+	}
+
+	private static SetLogEntryDTO entry(int trainingSetIndex, Integer repetitions, Float loadInKg, Integer durationSeconds) {
+		return SetLogEntryDTO.builder()
+			.trainingSetIndex(trainingSetIndex)
+			.repetitions(repetitions)
+			.loadInKg(loadInKg)
+			.durationSeconds(durationSeconds)
+			.build();
+	}
+
+}